@@ -0,0 +1,31 @@
+package com.example.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Main class of the {@code benchmarks} profile in jwt_auth and parent. Same
+ * command line as JMH's own main, but results go to
+ * {@value #DEFAULT_RESULT_FILE} in JSON unless {@code -rf}/{@code -rff} are
+ * given, so every run leaves a file that {@link CompareResults} can diff
+ * against a baseline.
+ */
+public final class BenchmarkMain {
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>();
+        List<String> given = Arrays.asList(args);
+        if (!given.contains("-rf") && !given.contains("-rff")) {
+            options.addAll(List.of("-rf", "json", "-rff", DEFAULT_RESULT_FILE));
+        }
+        options.addAll(given);
+        Main.main(options.toArray(String[]::new));
+    }
+}
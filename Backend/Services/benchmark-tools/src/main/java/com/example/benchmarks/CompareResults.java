@@ -0,0 +1,112 @@
+package com.example.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Diffs two JMH JSON result files. A benchmark regressed when it got worse
+ * by more than the threshold (default 10%) and by more than the two runs'
+ * combined error, so noise alone does not fail a release. Throughput is
+ * worse when it drops; the time modes are worse when they rise. Exits with
+ * status 1 on any regression.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmarks.main=com.example.benchmarks.CompareResults \
+ *     -Dbenchmarks.args="baseline.json jmh-result.json [0.10]"
+ * </pre>
+ */
+public final class CompareResults {
+
+    public record Comparison(String benchmark, String unit, double baseline, double current,
+                             double change, boolean regressed) {
+    }
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : 0.10;
+        List<Comparison> comparisons = compare(
+                mapper.readTree(new File(args[0])), mapper.readTree(new File(args[1])), threshold);
+
+        int regressions = 0;
+        for (Comparison c : comparisons) {
+            System.out.printf("%-80s %14.3f %14.3f %-10s %+8.1f%%%s%n", c.benchmark(), c.baseline(), c.current(),
+                    c.unit(), c.change() * 100, c.regressed() ? "  REGRESSED" : "");
+            if (c.regressed()) {
+                regressions++;
+            }
+        }
+        System.out.printf("%d benchmarks compared, %d regressed (threshold %.0f%%)%n",
+                comparisons.size(), regressions, threshold * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Compares the benchmarks present in both runs. {@code change} is signed
+     * so that a positive value is always worse.
+     */
+    public static List<Comparison> compare(JsonNode baseline, JsonNode current, double threshold) {
+        Map<String, JsonNode> before = index(baseline);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : index(current).entrySet()) {
+            JsonNode old = before.get(entry.getKey());
+            if (old == null) {
+                continue;
+            }
+            JsonNode oldMetric = old.get("primaryMetric");
+            JsonNode newMetric = entry.getValue().get("primaryMetric");
+            double oldScore = oldMetric.get("score").asDouble();
+            double newScore = newMetric.get("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            double delta = higherIsBetter ? oldScore - newScore : newScore - oldScore;
+            double change = oldScore == 0 ? 0 : delta / oldScore;
+            double noise = error(oldMetric) + error(newMetric);
+            comparisons.add(new Comparison(entry.getKey(), newMetric.get("scoreUnit").asText(),
+                    oldScore, newScore, change, change > threshold && delta > noise));
+        }
+        return comparisons;
+    }
+
+    // Key is the benchmark method, mode and sorted params, e.g. "...JwtFilterBenchmark.doFilter avgt source=cookie,tokenCache=true"
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText())
+                    .append(' ').append(result.get("mode").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Map<String, String> sorted = new TreeMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    sorted.put(param.getKey(), param.getValue().asText());
+                }
+                key.append(' ');
+                sorted.forEach((name, value) -> key.append(name).append('=').append(value).append(','));
+                key.setLength(key.length() - 1);
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    // JMH writes "NaN" when there were too few iterations to estimate the error
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CompareResultsTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void slowerAverageTimeBeyondErrorIsARegression() throws Exception {
+		List<CompareResults.Comparison> comparisons = CompareResults.compare(
+				run(result("avgt", "cookie", 10.0, 0.5)), run(result("avgt", "cookie", 12.0, 0.5)), 0.10);
+		assertEquals(1, comparisons.size());
+		assertTrue(comparisons.get(0).regressed());
+		assertEquals(0.2, comparisons.get(0).change(), 1e-9);
+	}
+
+	@Test
+	void changeWithinErrorIsNoise() throws Exception {
+		List<CompareResults.Comparison> comparisons = CompareResults.compare(
+				run(result("avgt", "cookie", 10.0, 1.5)), run(result("avgt", "cookie", 12.0, 1.5)), 0.10);
+		assertFalse(comparisons.get(0).regressed());
+	}
+
+	@Test
+	void lowerThroughputIsARegressionAndParamsAreMatched() throws Exception {
+		List<CompareResults.Comparison> comparisons = CompareResults.compare(
+				run(result("thrpt", "cookie", 1000.0, 10), result("thrpt", "header", 1000.0, 10)),
+				run(result("thrpt", "header", 1200.0, 10), result("thrpt", "cookie", 700.0, 10)), 0.10);
+		assertEquals(2, comparisons.size());
+		assertFalse(comparisons.get(0).regressed());
+		assertTrue(comparisons.get(1).regressed());
+	}
+
+	private JsonNode run(String... results) throws Exception {
+		return mapper.readTree("[" + String.join(",", results) + "]");
+	}
+
+	private static String result(String mode, String source, double score, double error) {
+		return """
+				{"benchmark": "com.example.benchmarks.JwtFilterBenchmark.doFilter", "mode": "%s",
+				 "params": {"tokenCache": "true", "source": "%s"},
+				 "primaryMetric": {"score": %s, "scoreError": %s, "scoreUnit": "us/op"}}
+				""".formatted(mode, source, score, error);
+	}
+}
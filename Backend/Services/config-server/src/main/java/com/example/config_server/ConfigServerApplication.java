@@ -3,9 +3,11 @@ package com.example.config_server;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.config.server.EnableConfigServer;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
 @EnableConfigServer	
+@ImportRuntimeHints(ConfigurationFilesRuntimeHints.class)
 public class ConfigServerApplication {
 
 	public static void main(String[] args) {
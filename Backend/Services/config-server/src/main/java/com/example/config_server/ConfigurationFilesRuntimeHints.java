@@ -0,0 +1,17 @@
+package com.example.config_server;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Keeps the files served by the native backend in a GraalVM native image,
+ * which only contains classpath resources that are registered up front.
+ */
+class ConfigurationFilesRuntimeHints implements RuntimeHintsRegistrar {
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		hints.resources().registerPattern("configurations/*.yml");
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.example.config_server;
+
+import java.util.List;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.config.server.config.ConfigServerProperties;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts {@link VersionedEnvironmentRepository} in front of the native backend
+ * in place of Spring Cloud Config's own composite repository, which backs off
+ * when one is already defined.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("native")
+class EnvironmentCacheConfig {
+
+	@Bean
+	@Primary
+	VersionedEnvironmentRepository versionedEnvironmentRepository(List<EnvironmentRepository> repositories,
+			NativeEnvironmentRepository nativeEnvironmentRepository,
+			ObjectProvider<ObservationRegistry> observationRegistry, ConfigServerProperties properties) {
+		return new VersionedEnvironmentRepository(repositories, nativeEnvironmentRepository,
+				observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP), properties.isFailOnCompositeError());
+	}
+
+	@Bean
+	WebMvcConfigurer environmentETags(VersionedEnvironmentRepository repository) {
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(new EnvironmentETagInterceptor(repository));
+			}
+		};
+	}
+
+}
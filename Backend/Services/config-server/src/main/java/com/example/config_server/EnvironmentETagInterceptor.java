@@ -0,0 +1,58 @@
+package com.example.config_server;
+
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.cloud.config.server.support.PathUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Answers {@code If-None-Match} on the environment endpoints with a 304
+ * before the controller serializes anything. The ETag is the version
+ * {@link VersionedEnvironmentRepository} computed for the same request, so it
+ * changes exactly when the response body would.
+ */
+class EnvironmentETagInterceptor implements HandlerInterceptor {
+
+	private final VersionedEnvironmentRepository repository;
+
+	EnvironmentETagInterceptor(VersionedEnvironmentRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod method)
+				|| !EnvironmentController.class.isAssignableFrom(method.getBeanType())
+				|| !Environment.class.equals(method.getMethod().getReturnType())) {
+			return true;
+		}
+		@SuppressWarnings("unchecked")
+		Map<String, String> variables = (Map<String, String>) request
+			.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		String name = variables.get("name");
+		String label = variables.get("label");
+		if (PathUtils.isInvalidEncodedLocation(name) || PathUtils.isInvalidEncodedLocation(label)) {
+			return true; // rejected by the controller
+		}
+		boolean includeOrigin = method.getMethod().getName().endsWith("IncludeOrigin");
+		Environment environment;
+		try {
+			// Same arguments as EnvironmentController.getEnvironment
+			environment = repository.findOne(Environment.normalize(name), variables.get("profiles"),
+					Environment.normalize(label), includeOrigin);
+		}
+		catch (RuntimeException e) {
+			return true; // let the controller fail the same way and map the error
+		}
+		return !new ServletWebRequest(request, response).checkNotModified('"' + environment.getVersion() + '"');
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.example.config_server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathCompositeEnvironmentRepository;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.StringUtils;
+
+/**
+ * Serves native-backend environments from memory instead of loading and
+ * merging the YAML files on every request. It replaces the composite
+ * repository Spring Cloud Config puts in front of the backends and behaves
+ * like it apart from the caching. Each environment is computed once
+ * and stamped with a version derived from its content, which
+ * {@link EnvironmentETagInterceptor} also sends as the ETag so clients can
+ * revalidate with a 304.
+ * <p>
+ * The files are read from the classpath and cannot change while the server
+ * runs, so entries never expire: a configuration change ships with a new
+ * build and restart. The applications found in the search locations are
+ * computed at startup so the first requests after a deploy are served from
+ * memory too.
+ */
+class VersionedEnvironmentRepository extends SearchPathCompositeEnvironmentRepository
+		implements SmartInitializingSingleton {
+
+	private static final Logger log = LoggerFactory.getLogger(VersionedEnvironmentRepository.class);
+
+	// Names and profiles come from the request path; beyond this, environments are computed per request
+	private static final int MAX_ENTRIES = 1024;
+
+	private final NativeEnvironmentRepository nativeRepository;
+
+	private final Map<Key, Environment> environments = new ConcurrentHashMap<>();
+
+	VersionedEnvironmentRepository(List<EnvironmentRepository> repositories, NativeEnvironmentRepository nativeRepository,
+			ObservationRegistry observationRegistry, boolean failOnError) {
+		super(repositories, observationRegistry, failOnError);
+		this.nativeRepository = nativeRepository;
+	}
+
+	@Override
+	public Environment findOne(String application, String profile, String label) {
+		return findOne(application, profile, label, false);
+	}
+
+	@Override
+	public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+		Key key = new Key(application, profile, label, includeOrigin);
+		Environment environment = environments.get(key);
+		if (environment == null) {
+			environment = environments.size() < MAX_ENTRIES ? environments.computeIfAbsent(key, this::load) : load(key);
+		}
+		return copy(environment);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		long start = System.nanoTime();
+		Map<String, Set<String>> applications = applications();
+		applications.forEach((application, profiles) -> {
+			findOne(application, "default", null);
+			profiles.forEach(profile -> findOne(application, profile, null));
+		});
+		log.info("Precomputed {} environments for {} applications in {} ms", environments.size(), applications.size(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	private Environment load(Key key) {
+		Environment environment = super.findOne(key.application(), key.profile(), key.label(), key.includeOrigin());
+		environment.setVersion(version(environment));
+		return environment;
+	}
+
+	// Lists may be shared between copies, the property sources themselves are never modified after load
+	private static Environment copy(Environment source) {
+		Environment copy = new Environment(source.getName(), source.getProfiles(), source.getLabel(),
+				source.getVersion(), source.getState());
+		copy.addAll(source.getPropertySources());
+		return copy;
+	}
+
+	private static String version(Environment environment) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(Arrays.toString(environment.getProfiles()).getBytes(StandardCharsets.UTF_8));
+		for (PropertySource source : environment.getPropertySources()) {
+			digest.update((source.getName() + '\n' + source.getSource() + '\n').getBytes(StandardCharsets.UTF_8));
+		}
+		return HexFormat.of().formatHex(digest.digest(), 0, 16);
+	}
+
+	/**
+	 * Application names and profiles from the file names in the search
+	 * locations: {@code gateway.yml} is application {@code gateway},
+	 * {@code gateway-docker.yml} its profile {@code docker}. The shared
+	 * {@code application} files apply to every application and are skipped.
+	 */
+	private Map<String, Set<String>> applications() {
+		Set<String> baseNames = new TreeSet<>();
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		for (String location : nativeRepository.getSearchLocations()) {
+			if (location.contains("{")) {
+				continue;
+			}
+			String directory = location.endsWith("/") ? location : location + "/";
+			for (String extension : new String[] { "yml", "yaml", "properties" }) {
+				try {
+					for (Resource resource : resolver.getResources(directory + "*." + extension)) {
+						baseNames.add(StringUtils.stripFilenameExtension(resource.getFilename()));
+					}
+				}
+				catch (IOException e) {
+					log.warn("Could not list {}: {}", directory, e.toString());
+				}
+			}
+		}
+		Map<String, Set<String>> applications = new TreeMap<>();
+		for (String baseName : baseNames) {
+			String application = baseName;
+			String profile = null;
+			for (String candidate : baseNames) {
+				if (baseName.startsWith(candidate + "-") && (profile == null || candidate.length() > application.length())) {
+					application = candidate;
+					profile = baseName.substring(candidate.length() + 1);
+				}
+			}
+			if (application.equals("application")) {
+				continue;
+			}
+			Set<String> profiles = applications.computeIfAbsent(application, name -> new TreeSet<>());
+			if (profile != null) {
+				profiles.add(profile);
+			}
+		}
+		return applications;
+	}
+
+	private record Key(String application, String profile, String label, boolean includeOrigin) {
+	}
+
+}
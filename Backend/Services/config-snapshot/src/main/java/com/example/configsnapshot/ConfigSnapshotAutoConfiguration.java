@@ -0,0 +1,53 @@
+package com.example.configsnapshot;
+
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Applies a snapshot that changed in the background to the running context
+ * through Spring Cloud's {@link ContextRefresher}, which rebinds
+ * {@code @ConfigurationProperties} and recreates {@code @RefreshScope} beans.
+ * Without a refresher (refresh disabled, as in the AOT builds) a change only
+ * reaches the snapshot file and takes effect on the next start.
+ */
+@AutoConfiguration(after = RefreshAutoConfiguration.class)
+@ConditionalOnClass(ContextRefresher.class)
+public class ConfigSnapshotAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(ContextRefresher.class)
+    ContextRefreshOnChange configSnapshotContextRefresh(ContextRefresher contextRefresher) {
+        return new ContextRefreshOnChange(contextRefresher);
+    }
+
+    static class ContextRefreshOnChange implements Runnable, DisposableBean {
+        private static final Log log = LogFactory.getLog(ContextRefreshOnChange.class);
+
+        private final ContextRefresher contextRefresher;
+
+        ContextRefreshOnChange(ContextRefresher contextRefresher) {
+            this.contextRefresher = contextRefresher;
+            ConfigSnapshotLoader.addChangeListener(this);
+        }
+
+        @Override
+        public void run() {
+            Set<String> keys = contextRefresher.refresh();
+            log.info("Configuration changed, refreshed keys " + keys);
+        }
+
+        @Override
+        public void destroy() {
+            ConfigSnapshotLoader.removeChangeListener(this);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.configsnapshot;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Keeps one application's configuration in a local snapshot file so the
+ * service can start without waiting for config-server:
+ * <ul>
+ * <li>with a snapshot on disk, startup uses it as is and the first
+ *     revalidation runs after a random delay within one refresh interval, so
+ *     a fleet restarting together does not hit config-server at once;</li>
+ * <li>without one, config-server is asked once in the calling thread;</li>
+ * <li>after that a single background thread revalidates every
+ *     {@code refreshInterval} (jittered) with {@code If-None-Match}, so an
+ *     unchanged configuration costs a 304 and no parsing;</li>
+ * <li>failed fetches keep the last good snapshot and retry with exponential
+ *     backoff capped at {@code refreshInterval}.</li>
+ * </ul>
+ * A changed snapshot is written to disk before {@code onChange} runs.
+ */
+final class ConfigSnapshotClient implements AutoCloseable {
+    private static final Duration MIN_RETRY = Duration.ofSeconds(1);
+
+    private final URI uri;
+    private final Path file;
+    private final Duration refreshInterval;
+    private final Duration timeout;
+    private final Runnable onChange;
+    private final Log log;
+    private final HttpClient http;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private int consecutiveFailures; // refresh thread only
+
+    ConfigSnapshotClient(URI uri, Path file, Duration refreshInterval, Duration timeout, Runnable onChange, Log log) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("refreshInterval must be positive, got " + refreshInterval);
+        }
+        this.uri = uri;
+        this.file = file;
+        this.refreshInterval = refreshInterval;
+        this.timeout = timeout;
+        this.onChange = onChange;
+        this.log = log;
+        this.http = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "config-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the stored snapshot, or fetches one if there is none, and
+     * schedules the background refresh. Never throws: with neither a snapshot
+     * nor a reachable config-server the result is empty and the background
+     * refresh keeps trying.
+     */
+    Snapshot start() {
+        Snapshot stored = read();
+        if (stored != null) {
+            snapshot = stored;
+            log.info("Starting from configuration snapshot " + file + " (version " + stored.version() + ")");
+            schedule(Duration.ofNanos(ThreadLocalRandom.current().nextLong(refreshInterval.toNanos())));
+        } else {
+            schedule(refresh());
+        }
+        return snapshot;
+    }
+
+    Snapshot current() {
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void run() {
+        Snapshot previous = snapshot;
+        Duration next = refresh();
+        if (!snapshot.sameContent(previous)) {
+            try {
+                onChange.run();
+            } catch (RuntimeException e) {
+                log.warn("Applying configuration version " + snapshot.version() + " failed", e);
+            }
+        }
+        schedule(next);
+    }
+
+    private void schedule(Duration delay) {
+        try {
+            scheduler.schedule(this::run, delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed
+        }
+    }
+
+    /** Fetches once and returns the delay until the next fetch. */
+    private Duration refresh() {
+        try {
+            Snapshot current = snapshot;
+            Snapshot fetched = fetch(current);
+            consecutiveFailures = 0;
+            if (fetched != current) {
+                snapshot = fetched;
+                write(fetched);
+                if (!fetched.sameContent(current)) {
+                    log.info("Loaded configuration version " + fetched.version() + " from " + uri);
+                }
+            }
+            return jitter(refreshInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return refreshInterval;
+        } catch (IOException | RuntimeException e) {
+            consecutiveFailures++;
+            Duration backoff = MIN_RETRY.multipliedBy(1L << Math.min(consecutiveFailures - 1, 20));
+            if (backoff.compareTo(refreshInterval) > 0) {
+                backoff = refreshInterval;
+            }
+            log.warn("Fetching configuration from " + uri + " failed (" + consecutiveFailures + " in a row), "
+                    + (snapshot.isEmpty() ? "no snapshot to fall back on" : "keeping version " + snapshot.version())
+                    + ", retrying in " + backoff + ": " + e);
+            return jitter(backoff);
+        }
+    }
+
+    // Returns current itself when config-server answers 304
+    private Snapshot fetch(Snapshot current) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (current.etag() != null) {
+            request.header("If-None-Match", current.etag());
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 304 && current.etag() != null) {
+            return current;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return Snapshot.parse(response.body(), response.headers().firstValue("ETag").orElse(null));
+    }
+
+    private Snapshot read() {
+        try {
+            return Snapshot.parse(Files.readAllBytes(file), null);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable configuration snapshot " + file + ": " + e);
+            return null;
+        }
+    }
+
+    // Written to a temp file and moved into place so a crash never leaves half a snapshot.
+    // The snapshot holds secrets; createTempFile makes it owner-only on POSIX file systems.
+    private void write(Snapshot snapshot) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, snapshot.toJson());
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write configuration snapshot " + file + ": " + e);
+        }
+    }
+
+    // 80-100% of the delay
+    private static Duration jitter(Duration delay) {
+        return Duration.ofNanos((long) (delay.toNanos() * (0.8 + 0.2 * ThreadLocalRandom.current().nextDouble())));
+    }
+}
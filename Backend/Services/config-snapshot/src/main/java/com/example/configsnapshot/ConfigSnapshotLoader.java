@@ -0,0 +1,67 @@
+package com.example.configsnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.context.config.ConfigData;
+import org.springframework.boot.context.config.ConfigDataLoader;
+import org.springframework.boot.context.config.ConfigDataLoaderContext;
+import org.springframework.boot.context.config.ConfigDataResourceNotFoundException;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+
+/**
+ * Serves the current snapshot of a {@link ConfigSnapshotResource}. Clients live
+ * as long as the JVM: a context refresh runs the import again and must get the
+ * snapshot the background refresh just stored, not start a second client.
+ */
+public class ConfigSnapshotLoader implements ConfigDataLoader<ConfigSnapshotResource> {
+    private static final Map<ConfigSnapshotResource, ConfigSnapshotClient> CLIENTS = new ConcurrentHashMap<>();
+    private static final List<Runnable> CHANGE_LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final Log log;
+
+    public ConfigSnapshotLoader(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(ConfigSnapshotLoader.class);
+    }
+
+    @Override
+    public ConfigData load(ConfigDataLoaderContext context, ConfigSnapshotResource resource)
+            throws ConfigDataResourceNotFoundException {
+        Snapshot snapshot = CLIENTS.computeIfAbsent(resource, this::start).current();
+        if (snapshot.isEmpty() && !resource.optional()) {
+            throw new ConfigDataResourceNotFoundException(resource);
+        }
+        // config-server lists sources highest precedence first, ConfigData expects the reverse
+        List<PropertySource<?>> propertySources = new ArrayList<>();
+        for (int i = snapshot.propertySources().size() - 1; i >= 0; i--) {
+            Snapshot.Source source = snapshot.propertySources().get(i);
+            propertySources.add(new MapPropertySource(ConfigSnapshotLocationResolver.PREFIX + source.name(), source.values()));
+        }
+        return new ConfigData(propertySources);
+    }
+
+    private ConfigSnapshotClient start(ConfigSnapshotResource resource) {
+        ConfigSnapshotClient client = resource.createClient(ConfigSnapshotLoader::changed, log);
+        client.start();
+        return client;
+    }
+
+    /** Runs {@code listener} on the refresh thread whenever a snapshot's content changes. */
+    static void addChangeListener(Runnable listener) {
+        CHANGE_LISTENERS.add(listener);
+    }
+
+    static void removeChangeListener(Runnable listener) {
+        CHANGE_LISTENERS.remove(listener);
+    }
+
+    private static void changed() {
+        CHANGE_LISTENERS.forEach(Runnable::run);
+    }
+}
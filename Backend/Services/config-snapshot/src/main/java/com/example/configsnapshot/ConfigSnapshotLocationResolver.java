@@ -0,0 +1,63 @@
+package com.example.configsnapshot;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.config.ConfigDataLocation;
+import org.springframework.boot.context.config.ConfigDataLocationResolver;
+import org.springframework.boot.context.config.ConfigDataLocationResolverContext;
+import org.springframework.boot.context.config.Profiles;
+import org.springframework.boot.context.properties.bind.Binder;
+
+/**
+ * Resolves {@code spring.config.import=optional:configsnapshot:http://host:8888}
+ * to the config-server environment of {@code spring.application.name} and the
+ * active profiles. Settings:
+ * <ul>
+ * <li>{@code config.snapshot.dir}: where snapshots are kept, default {@code ~/.config-snapshots};</li>
+ * <li>{@code config.snapshot.refresh-interval}: background revalidation period, default 1m;</li>
+ * <li>{@code config.snapshot.timeout}: connect and request timeout, default 5s.</li>
+ * </ul>
+ * {@code spring.cloud.config.enabled=false} switches the import off, as it does
+ * for the stock config client.
+ */
+public class ConfigSnapshotLocationResolver implements ConfigDataLocationResolver<ConfigSnapshotResource> {
+    static final String PREFIX = "configsnapshot:";
+
+    @Override
+    public boolean isResolvable(ConfigDataLocationResolverContext context, ConfigDataLocation location) {
+        return location.hasPrefix(PREFIX);
+    }
+
+    // Everything happens in resolveProfileSpecific, once the active profiles are known
+    @Override
+    public List<ConfigSnapshotResource> resolve(ConfigDataLocationResolverContext context, ConfigDataLocation location) {
+        return List.of();
+    }
+
+    @Override
+    public List<ConfigSnapshotResource> resolveProfileSpecific(ConfigDataLocationResolverContext context,
+                                                               ConfigDataLocation location, Profiles profiles) {
+        Binder binder = context.getBinder();
+        if (!binder.bind("spring.cloud.config.enabled", Boolean.class).orElse(true)) {
+            return List.of();
+        }
+        String application = binder.bind("spring.application.name", String.class).orElse("application");
+        String profileList = profiles.getAccepted().isEmpty() ? "default" : String.join(",", profiles.getAccepted());
+        String server = location.getNonPrefixedValue(PREFIX);
+        if (server.endsWith("/")) {
+            server = server.substring(0, server.length() - 1);
+        }
+        Path dir = binder.bind("config.snapshot.dir", String.class)
+                .map(Path::of)
+                .orElseGet(() -> Path.of(System.getProperty("user.home"), ".config-snapshots"));
+        return List.of(new ConfigSnapshotResource(
+                URI.create(server + "/" + application + "/" + profileList),
+                dir.resolve(application + "-" + profileList.replace(',', '+') + ".json"),
+                binder.bind("config.snapshot.refresh-interval", Duration.class).orElse(Duration.ofMinutes(1)),
+                binder.bind("config.snapshot.timeout", Duration.class).orElse(Duration.ofSeconds(5)),
+                location.isOptional()));
+    }
+}
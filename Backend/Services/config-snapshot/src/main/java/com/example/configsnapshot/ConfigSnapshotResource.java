@@ -0,0 +1,56 @@
+package com.example.configsnapshot;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.context.config.ConfigDataResource;
+
+/** One application and profile list on one config-server, and where its snapshot lives. */
+final class ConfigSnapshotResource extends ConfigDataResource {
+
+    private final URI uri;
+    private final Path file;
+    private final Duration refreshInterval;
+    private final Duration timeout;
+    private final boolean optional;
+
+    ConfigSnapshotResource(URI uri, Path file, Duration refreshInterval, Duration timeout, boolean optional) {
+        super(optional);
+        this.uri = uri;
+        this.file = file;
+        this.refreshInterval = refreshInterval;
+        this.timeout = timeout;
+        this.optional = optional;
+    }
+
+    ConfigSnapshotClient createClient(Runnable onChange, Log log) {
+        return new ConfigSnapshotClient(uri, file, refreshInterval, timeout, onChange, log);
+    }
+
+    boolean optional() {
+        return optional;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ConfigSnapshotResource other
+                && uri.equals(other.uri)
+                && file.equals(other.file)
+                && refreshInterval.equals(other.refreshInterval)
+                && timeout.equals(other.timeout)
+                && optional == other.optional;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uri, file, refreshInterval, timeout, optional);
+    }
+
+    @Override
+    public String toString() {
+        return "config snapshot of " + uri + " in " + file;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.configsnapshot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * One config-server answer: its property sources, highest precedence first, and
+ * the version and ETag used to revalidate it. The snapshot file is written in
+ * the same shape as config-server's environment JSON plus an {@code etag}
+ * field, so one parser reads both.
+ */
+record Snapshot(String version, String etag, List<Source> propertySources) {
+
+    static final Snapshot EMPTY = new Snapshot(null, null, List.of());
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, Object>> SOURCE = new TypeReference<>() {};
+
+    record Source(String name, Map<String, Object> values) {
+    }
+
+    boolean isEmpty() {
+        return propertySources.isEmpty();
+    }
+
+    /** True if both hold the same properties, whatever their version or ETag. */
+    boolean sameContent(Snapshot other) {
+        return propertySources.equals(other.propertySources);
+    }
+
+    /** Parses a config-server environment response or a snapshot file; {@code etag} overrides a stored one. */
+    static Snapshot parse(byte[] json, String etag) throws IOException {
+        JsonNode root = MAPPER.readTree(json);
+        if (root == null || !root.isObject()) {
+            throw new IOException("Expected a JSON object");
+        }
+        List<Source> sources = new ArrayList<>();
+        for (JsonNode source : root.path("propertySources")) {
+            sources.add(new Source(source.path("name").asText(), MAPPER.convertValue(source.path("source"), SOURCE)));
+        }
+        return new Snapshot(
+                textOrNull(root.get("version")),
+                etag != null ? etag : textOrNull(root.get("etag")),
+                List.copyOf(sources));
+    }
+
+    byte[] toJson() throws IOException {
+        List<Map<String, Object>> sources = new ArrayList<>();
+        for (Source source : propertySources) {
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("name", source.name());
+            node.put("source", source.values());
+            sources.add(node);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("version", version);
+        root.put("etag", etag);
+        root.put("propertySources", sources);
+        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(root);
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.configsnapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class ConfigSnapshotClientTests {
+
+	@TempDir
+	Path dir;
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger notModified = new AtomicInteger();
+	private final AtomicInteger changes = new AtomicInteger();
+	private volatile int status = 200;
+	private volatile String version = "v1";
+	private volatile String greeting = "hello";
+	private HttpServer server;
+	private ConfigSnapshotClient client;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/gateway/default", this::serve);
+		server.start();
+	}
+
+	@AfterEach
+	void stop() {
+		if (client != null) {
+			client.close();
+		}
+		server.stop(0);
+	}
+
+	@Test
+	void fetchesAndStoresWithoutSnapshotThenRevalidatesWithETag() throws Exception {
+		client = client(Duration.ofMillis(100));
+		Snapshot snapshot = client.start();
+
+		assertThat(snapshot.version()).isEqualTo("v1");
+		assertThat(snapshot.propertySources().get(0).values()).containsEntry("greeting", "hello");
+		assertThat(Files.readString(file())).contains("\"etag\" : \"\\\"v1\\\"\"");
+
+		await(() -> notModified.get() >= 2);
+		assertThat(changes).hasValue(0);
+	}
+
+	@Test
+	void startsFromStoredSnapshotWithoutWaitingForServer() throws Exception {
+		client = client(Duration.ofHours(1));
+		client.start();
+		client.close();
+		status = 503;
+		requests.set(0);
+
+		client = client(Duration.ofHours(1));
+		Snapshot snapshot = client.start();
+
+		assertThat(snapshot.version()).isEqualTo("v1");
+		assertThat(snapshot.propertySources().get(0).values()).containsEntry("greeting", "hello");
+		assertThat(requests).hasValue(0);
+	}
+
+	@Test
+	void storesAndReportsChangedConfiguration() throws Exception {
+		client = client(Duration.ofMillis(100));
+		client.start();
+
+		version = "v2";
+		greeting = "hi";
+		await(() -> changes.get() == 1);
+		assertThat(client.current().version()).isEqualTo("v2");
+		assertThat(Files.readString(file())).contains("\"greeting\" : \"hi\"");
+	}
+
+	@Test
+	void keepsLastSnapshotWhileServerIsDown() throws Exception {
+		client = client(Duration.ofMillis(100));
+		client.start();
+		status = 503;
+
+		int before = requests.get();
+		await(() -> requests.get() >= before + 2);
+		assertThat(client.current().version()).isEqualTo("v1");
+		assertThat(changes).hasValue(0);
+	}
+
+	@Test
+	void importKeepsConfigServerPrecedence() {
+		SpringApplication application = new SpringApplication(EmptyConfiguration.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		try (ConfigurableApplicationContext context = application.run(
+				"--spring.application.name=gateway",
+				"--spring.config.import=configsnapshot:http://127.0.0.1:" + server.getAddress().getPort(),
+				"--config.snapshot.dir=" + dir,
+				"--config.snapshot.refresh-interval=1h")) {
+			assertThat(context.getEnvironment().getProperty("greeting")).isEqualTo("hello");
+			assertThat(context.getEnvironment().getProperty("origin")).isEqualTo("gateway-default.yml");
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class EmptyConfiguration {
+	}
+
+	private ConfigSnapshotClient client(Duration refreshInterval) {
+		URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/gateway/default");
+		return new ConfigSnapshotClient(uri, file(), refreshInterval, Duration.ofSeconds(2), changes::incrementAndGet,
+				LogFactory.getLog(ConfigSnapshotClientTests.class));
+	}
+
+	private Path file() {
+		return dir.resolve("gateway-default.json");
+	}
+
+	// Highest precedence first, as config-server orders them
+	private void serve(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		if (status != 200) {
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+			return;
+		}
+		String etag = "\"" + version + "\"";
+		exchange.getResponseHeaders().set("ETag", etag);
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			notModified.incrementAndGet();
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		String body = "{\"name\":\"gateway\",\"profiles\":[\"default\"],\"label\":null,\"version\":\"" + version + "\","
+				+ "\"state\":null,\"propertySources\":["
+				+ source("gateway-default.yml", Map.of("greeting", greeting, "origin", "gateway-default.yml")) + ","
+				+ source("gateway.yml", Map.of("origin", "gateway.yml", "port", "8222")) + "]}";
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static String source(String name, Map<String, String> values) {
+		StringBuilder json = new StringBuilder("{\"name\":\"" + name + "\",\"source\":{");
+		values.forEach((key, value) -> json.append('"').append(key).append("\":\"").append(value).append("\","));
+		json.setLength(json.length() - 1);
+		return json.append("}}").toString();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.example.datasourcetuning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sizes the Hikari pool from the core count, {@code cores * perCore + extra},
+ * after Boot has bound {@code spring.datasource.hikari.*} and before the pool
+ * starts. It hooks in before initialization so it sees the HikariDataSource
+ * itself, not the JDBC tracing proxy that is wrapped around it afterwards.
+ * Off when {@code perCore} is 0; the pool is fixed-size (minimum idle =
+ * maximum) because PostgreSQL connections are expensive to open and Hikari
+ * recommends it.
+ * <p>
+ * Not a component: each service registers it from a static {@code @Bean}
+ * method bound to its own properties.
+ */
+public class DataSourcePoolSizer implements BeanPostProcessor {
+    private static final Logger log = LoggerFactory.getLogger(DataSourcePoolSizer.class);
+
+    private final int perCore;
+    private final int extra;
+
+    public DataSourcePoolSizer(int perCore, int extra) {
+        this.perCore = perCore;
+        this.extra = extra;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (perCore > 0 && bean instanceof HikariDataSource dataSource) {
+            int size = poolSize(Runtime.getRuntime().availableProcessors(), perCore, extra);
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(size);
+            log.info("Sized {} to {} connections", dataSource.getPoolName() != null ? dataSource.getPoolName() : beanName, size);
+        }
+        return bean;
+    }
+
+    public static int poolSize(int cores, int perCore, int extra) {
+        return Math.max(2, cores * perCore + extra);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.datasourcetuning;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Lets through roughly {@code rate} of the events from one logger (by default
+ * org.hibernate.SQL) and leaves every other logger alone.
+ * As a turbo filter it runs before a logging event is built, so a dropped
+ * statement costs one random number rather than an event and an appender call.
+ */
+public class SampledLoggerTurboFilter extends TurboFilter {
+    private String loggerName = "org.hibernate.SQL";
+    private double rate = 0.01;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!logger.getName().equals(loggerName) || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Let isXxxEnabled() probes (format == null) through and sample only the log call itself;
+        // JBoss Logging probes again inside debug(), so sampling probes would apply the rate twice
+        if (format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+}
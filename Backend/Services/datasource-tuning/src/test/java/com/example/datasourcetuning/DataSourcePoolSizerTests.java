@@ -0,0 +1,33 @@
+package com.example.datasourcetuning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class DataSourcePoolSizerTests {
+
+	@Test
+	void poolSizeScalesWithCoresAndNeverDropsBelowTwo() {
+		assertEquals(9, DataSourcePoolSizer.poolSize(4, 2, 1));
+		assertEquals(2, DataSourcePoolSizer.poolSize(1, 1, 0));
+	}
+
+	@Test
+	void sizesTheHikariPoolAsAFixedPool() {
+		HikariDataSource dataSource = new HikariDataSource();
+		new DataSourcePoolSizer(2, 1).postProcessBeforeInitialization(dataSource, "dataSource");
+		int expected = DataSourcePoolSizer.poolSize(Runtime.getRuntime().availableProcessors(), 2, 1);
+		assertEquals(expected, dataSource.getMaximumPoolSize());
+		assertEquals(expected, dataSource.getMinimumIdle());
+	}
+
+	@Test
+	void leavesThePoolAloneWhenOff() {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setMaximumPoolSize(7);
+		new DataSourcePoolSizer(0, 1).postProcessBeforeInitialization(dataSource, "dataSource");
+		assertEquals(7, dataSource.getMaximumPoolSize());
+	}
+}
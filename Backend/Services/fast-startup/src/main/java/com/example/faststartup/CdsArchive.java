@@ -0,0 +1,131 @@
+package com.example.faststartup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+
+/**
+ * Builds {@code app.jsa} next to a service's fast-startup jar from a training
+ * run: the service starts with the AOT-generated context and exits once the
+ * context is refreshed ({@code spring.context.exit=onRefresh}), so the archive
+ * holds the classes startup loads and the build touches no database or registry.
+ * <pre>
+ * CdsArchive [--static] [--backport-context-exit] [--exclude=REGEX]... JAR [JVM_ARG]...
+ * </pre>
+ * By default the training run writes a dynamic archive on exit. {@code --static}
+ * dumps the class list instead, drops the lines matching each {@code --exclude},
+ * and builds a static archive from it in a second JVM, for the lambda proxies
+ * JDK 17's dynamic archive crashes on when restoring them.
+ * {@code --backport-context-exit} adds {@link ExitOnRefresh} to the training run
+ * for services on Spring Framework 6.0. It needs {@code --static}: it puts this
+ * jar on the class path, and a dynamic archive only matches the class path it
+ * was trained with.
+ * <p>
+ * Child JVMs use the JDK running this class, i.e. Maven's.
+ */
+public final class CdsArchive {
+    static final String ARCHIVE = "app.jsa";
+    static final String CLASS_LIST = "app.classlist";
+
+    private CdsArchive() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean staticArchive = false;
+        boolean backportContextExit = false;
+        List<Pattern> excludes = new ArrayList<>();
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("--"); i++) {
+            if (args[i].equals("--static")) {
+                staticArchive = true;
+            } else if (args[i].equals("--backport-context-exit")) {
+                backportContextExit = true;
+            } else if (args[i].startsWith("--exclude=")) {
+                excludes.add(Pattern.compile(args[i].substring("--exclude=".length())));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (i == args.length) {
+            throw new IllegalArgumentException("Usage: CdsArchive [--static] [--backport-context-exit] [--exclude=REGEX]... JAR [JVM_ARG]...");
+        }
+        if (backportContextExit && !staticArchive) {
+            throw new IllegalArgumentException("--backport-context-exit needs --static");
+        }
+        Path jar = Path.of(args[i]).toAbsolutePath();
+        Path directory = jar.getParent();
+        List<String> jvmArgs = List.of(args).subList(i + 1, args.length);
+
+        List<String> training = new ArrayList<>();
+        training.add(staticArchive ? "-XX:DumpLoadedClassList=" + CLASS_LIST : "-XX:ArchiveClassesAtExit=" + ARCHIVE);
+        training.add("-Dspring.aot.enabled=true");
+        training.add("-Dspring.context.exit=onRefresh");
+        training.addAll(jvmArgs);
+        if (backportContextExit) {
+            // By name: loading ExitOnRefresh here would need Spring on this class path
+            training.add("-Dcontext.initializer.classes=" + CdsArchive.class.getPackageName() + ".ExitOnRefresh");
+            training.add("-cp");
+            training.add(jar.getFileName() + File.pathSeparator + ownJar());
+            training.add(mainClass(jar));
+        } else {
+            training.add("-jar");
+            training.add(jar.getFileName().toString());
+        }
+        java(directory, training);
+        if (!staticArchive) {
+            return;
+        }
+
+        Path classList = directory.resolve(CLASS_LIST);
+        Files.write(classList, filterClassList(Files.readAllLines(classList, StandardCharsets.UTF_8), excludes), StandardCharsets.UTF_8);
+        java(directory, List.of("-Xshare:dump", "-XX:SharedClassListFile=" + CLASS_LIST, "-XX:SharedArchiveFile=" + ARCHIVE,
+                "-jar", jar.getFileName().toString()));
+    }
+
+    /**
+     * Drops the lines matching any of {@code excludes}, and this tool's own
+     * classes, which are on the training class path but not the service's.
+     */
+    static List<String> filterClassList(List<String> lines, List<Pattern> excludes) {
+        String ownPackage = CdsArchive.class.getPackageName().replace('.', '/') + "/";
+        List<String> kept = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line.startsWith(ownPackage) || line.startsWith("@lambda-proxy " + ownPackage) || excludes.stream().anyMatch(exclude -> exclude.matcher(line).find())) {
+                continue;
+            }
+            kept.add(line);
+        }
+        return kept;
+    }
+
+    private static void java(Path directory, List<String> args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(args);
+        int exit = new ProcessBuilder(command).directory(directory.toFile()).inheritIO().start().waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + exit);
+        }
+    }
+
+    private static String mainClass(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getManifest().getMainAttributes().getValue("Main-Class");
+        }
+    }
+
+    private static String ownJar() {
+        try {
+            return Path.of(CdsArchive.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.faststartup;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Backport of Spring Framework 6.1's {@code -Dspring.context.exit=onRefresh}
+ * for the Boot 3.1 service: once every singleton is created, and before the
+ * web server starts, the JVM halts. {@link CdsArchive} registers it through
+ * {@code context.initializer.classes} on the training run only; this jar is
+ * never on a service's own class path.
+ */
+public class ExitOnRefresh implements ApplicationContextInitializer<GenericApplicationContext> {
+    private static final Log log = LogFactory.getLog(ExitOnRefresh.class);
+
+    @Override
+    public void initialize(GenericApplicationContext context) {
+        context.registerBean(ExitOnRefresh.class.getName(), SmartInitializingSingleton.class, () -> () -> {
+            log.info("Exiting after context refresh (training run)");
+            // halt, like Framework 6.1: shutdown hooks would start closing beans the archive does not need
+            Runtime.getRuntime().halt(0);
+        });
+    }
+}
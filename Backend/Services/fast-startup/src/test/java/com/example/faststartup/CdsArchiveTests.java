@@ -0,0 +1,29 @@
+package com.example.faststartup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class CdsArchiveTests {
+
+	@Test
+	void excludedLinesAndToolClassesAreDropped() {
+		List<String> lines = List.of(
+				"java/lang/Object id: 0",
+				"com/example/faststartup/ExitOnRefresh id: 1",
+				"@lambda-proxy com/example/faststartup/ExitOnRefresh get ()Ljava/util/function/Supplier;",
+				"@lambda-proxy org/springframework/data/projection/DefaultMethodInvokingMethodInterceptor$MethodHandleLookup 1 2",
+				"org/springframework/data/projection/DefaultMethodInvokingMethodInterceptor$MethodHandleLookup id: 3");
+		List<Pattern> excludes = List.of(Pattern.compile("^@lambda-proxy .*DefaultMethodInvokingMethodInterceptor.MethodHandleLookup"));
+		assertEquals(List.of(lines.get(0), lines.get(4)), CdsArchive.filterClassList(lines, excludes));
+	}
+
+	@Test
+	void nothingIsDroppedWithoutExcludes() {
+		List<String> lines = List.of("java/lang/Object id: 0", "@lambda-proxy java/lang/Runnable 1");
+		assertEquals(lines, CdsArchive.filterClassList(lines, List.of()));
+	}
+}
@@ -0,0 +1,11 @@
+package com.example.gatewayidentity;
+
+import java.time.Instant;
+
+/**
+ * The caller the gateway verified a token for: its subject, and the token's
+ * id and expiry so a service can still check it against the revocation list.
+ * {@code tokenId} is null for tokens issued without a jti.
+ */
+public record GatewayIdentity(String subject, String tokenId, Instant expiresAt) {
+}
@@ -0,0 +1,126 @@
+package com.example.gatewayidentity;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Carries a {@link GatewayIdentity} from the gateway to the services in
+ * request headers, with an HMAC-SHA256 over them keyed by a secret only the
+ * gateway and the services hold. A service can therefore take the identity
+ * as given without parsing the token again, and a client that calls a
+ * service directly cannot forge one. The signature also covers when it was
+ * made, and is only accepted for {@code maxAge} after that (either way, for
+ * clock skew), so a captured set of headers stops working quickly.
+ * <p>
+ * The gateway removes these headers from every incoming request before it
+ * signs its own.
+ */
+public class GatewayIdentitySigner {
+    public static final String SUBJECT_HEADER = "X-Gateway-Subject";
+    public static final String TOKEN_ID_HEADER = "X-Gateway-Token-Id";
+    public static final String EXPIRES_AT_HEADER = "X-Gateway-Token-Expires";
+    public static final String SIGNED_AT_HEADER = "X-Gateway-Signed-At";
+    public static final String SIGNATURE_HEADER = "X-Gateway-Signature";
+    public static final List<String> HEADERS =
+            List.of(SUBJECT_HEADER, TOKEN_ID_HEADER, EXPIRES_AT_HEADER, SIGNED_AT_HEADER, SIGNATURE_HEADER);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    /** {@code secret} is Base64 and must decode to at least 32 bytes. */
+    public GatewayIdentitySigner(String secret, Duration maxAge) {
+        this(secret, maxAge, Clock.systemUTC());
+    }
+
+    GatewayIdentitySigner(String secret, Duration maxAge, Clock clock) {
+        byte[] bytes = Base64.getDecoder().decode(secret);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("Gateway identity secret must be at least " + MIN_SECRET_BYTES + " bytes, got " + bytes.length);
+        }
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    /** The headers to forward for {@code identity}, signature included. */
+    public Map<String, String> sign(GatewayIdentity identity) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(SUBJECT_HEADER, URLEncoder.encode(identity.subject(), StandardCharsets.UTF_8));
+        if (identity.tokenId() != null) {
+            headers.put(TOKEN_ID_HEADER, URLEncoder.encode(identity.tokenId(), StandardCharsets.UTF_8));
+        }
+        headers.put(EXPIRES_AT_HEADER, Long.toString(identity.expiresAt().getEpochSecond()));
+        headers.put(SIGNED_AT_HEADER, Long.toString(clock.instant().getEpochSecond()));
+        headers.put(SIGNATURE_HEADER, mac(headers::get));
+        return headers;
+    }
+
+    /**
+     * The identity in the request's headers, or null if they are missing, do
+     * not match the signature, are older than {@code maxAge}, or describe an
+     * expired token.
+     */
+    public GatewayIdentity verify(Function<String, String> headers) {
+        String signature = headers.apply(SIGNATURE_HEADER);
+        String subject = headers.apply(SUBJECT_HEADER);
+        String expiresAt = headers.apply(EXPIRES_AT_HEADER);
+        String signedAt = headers.apply(SIGNED_AT_HEADER);
+        if (signature == null || subject == null || expiresAt == null || signedAt == null) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(signature.getBytes(StandardCharsets.US_ASCII),
+                mac(headers).getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+        try {
+            Instant now = clock.instant();
+            Instant signed = Instant.ofEpochSecond(Long.parseLong(signedAt));
+            Instant expires = Instant.ofEpochSecond(Long.parseLong(expiresAt));
+            if (Duration.between(signed, now).abs().compareTo(maxAge) > 0 || !expires.isAfter(now)) {
+                return null;
+            }
+            String tokenId = headers.apply(TOKEN_ID_HEADER);
+            return new GatewayIdentity(URLDecoder.decode(subject, StandardCharsets.UTF_8),
+                    tokenId != null ? URLDecoder.decode(tokenId, StandardCharsets.UTF_8) : null,
+                    expires);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Over every header but the signature, in a fixed order; an absent header counts as empty
+    private String mac(Function<String, String> headers) {
+        StringBuilder signed = new StringBuilder("v1");
+        for (String name : HEADERS) {
+            if (!name.equals(SIGNATURE_HEADER)) {
+                String value = headers.apply(name);
+                signed.append('\n').append(value != null ? value : "");
+            }
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(signed.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
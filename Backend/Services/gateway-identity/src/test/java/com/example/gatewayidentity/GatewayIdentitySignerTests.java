@@ -0,0 +1,69 @@
+package com.example.gatewayidentity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class GatewayIdentitySignerTests {
+
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+	private final GatewayIdentitySigner signer = signer(SECRET, NOW);
+	private final GatewayIdentity alice = new GatewayIdentity("älice+1@example.com", "jti-1", NOW.plusSeconds(3600));
+
+	@Test
+	void signedHeadersVerify() {
+		Map<String, String> headers = signer.sign(alice);
+		assertEquals(alice, signer.verify(headers::get));
+		assertEquals("%C3%A4lice%2B1%40example.com", headers.get(GatewayIdentitySigner.SUBJECT_HEADER));
+
+		GatewayIdentity withoutId = new GatewayIdentity("bob@example.com", null, NOW.plusSeconds(60));
+		assertEquals(withoutId, signer.verify(signer.sign(withoutId)::get));
+	}
+
+	@Test
+	void tamperedOrMissingHeadersAreRejected() {
+		for (String name : GatewayIdentitySigner.HEADERS) {
+			Map<String, String> headers = new HashMap<>(signer.sign(alice));
+			headers.put(name, "x" + headers.get(name));
+			assertNull(signer.verify(headers::get), name);
+			// Includes the token id, whose removal would dodge the revocation check
+			headers.remove(name);
+			assertNull(signer.verify(headers::get), name);
+		}
+	}
+
+	@Test
+	void otherSecretsAreRejected() {
+		String other = Base64.getEncoder().encodeToString("another secret, 32 bytes or more".getBytes());
+		assertNull(signer(other, NOW).verify(signer.sign(alice)::get));
+		assertThrows(IllegalArgumentException.class, () -> signer(Base64.getEncoder().encodeToString(new byte[16]), NOW));
+	}
+
+	@Test
+	void staleSignaturesAndExpiredTokensAreRejected() {
+		Map<String, String> headers = signer.sign(alice);
+		assertEquals(alice, signer(SECRET, NOW.plusSeconds(30)).verify(headers::get));
+		assertNull(signer(SECRET, NOW.plusSeconds(31)).verify(headers::get));
+		assertNull(signer(SECRET, NOW.minusSeconds(31)).verify(headers::get));
+
+		GatewayIdentity expired = new GatewayIdentity("alice@example.com", "jti-2", NOW);
+		assertNull(signer.verify(signer.sign(expired)::get));
+	}
+
+	private static GatewayIdentitySigner signer(String secret, Instant now) {
+		return new GatewayIdentitySigner(secret, Duration.ofSeconds(30), Clock.fixed(now, ZoneOffset.UTC));
+	}
+
+}
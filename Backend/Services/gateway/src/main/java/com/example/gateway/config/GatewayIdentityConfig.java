@@ -0,0 +1,23 @@
+package com.example.gateway.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.gatewayidentity.GatewayIdentitySigner;
+
+/**
+ * Signs the identity {@link JwtAuthenticationFilter} verified, with the
+ * secret authentication-service and parent-service check it against.
+ */
+@Configuration(proxyBeanMethods = false)
+public class GatewayIdentityConfig {
+
+    @Bean
+    public GatewayIdentitySigner gatewayIdentitySigner(@Value("${gateway.identity.secret}") String secret,
+                                                       @Value("${gateway.identity.max-age:30s}") Duration maxAge) {
+        return new GatewayIdentitySigner(secret, maxAge);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.gateway.config;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.jwks.JwksClient;
+import com.example.jwks.JwksKeyResolver;
+
+import io.jsonwebtoken.SigningKeyResolver;
+
+/**
+ * Token verification keys, fetched from authentication-service's JWKS
+ * endpoint and refreshed in the background. The endpoint is addressed
+ * directly rather than through service discovery so the gateway can start
+ * and fetch before the Eureka registry has been loaded.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JwksClientConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JwksClient jwksClient(@Value("${jwt.jwks.uri}") URI uri,
+                                 @Value("${jwt.jwks.refresh-interval:1h}") Duration refreshInterval,
+                                 @Value("${jwt.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+        return new JwksClient(uri, refreshInterval, minRefreshInterval);
+    }
+
+    @Bean
+    public SigningKeyResolver signingKeyResolver(JwksClient jwksClient) {
+        return new JwksKeyResolver(jwksClient);
+    }
+}
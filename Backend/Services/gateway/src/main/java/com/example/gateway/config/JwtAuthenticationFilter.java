@@ -0,0 +1,131 @@
+package com.example.gateway.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.example.gatewayidentity.GatewayIdentity;
+import com.example.gatewayidentity.GatewayIdentitySigner;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies the jwt cookie or Bearer token once at the edge and forwards the
+ * caller to downstream services as headers signed by {@link GatewayIdentitySigner},
+ * which they accept instead of verifying the token again. Client-supplied
+ * values of those headers are always stripped.
+ * Signatures are checked against authentication-service's published keys
+ * (see {@link JwksClientConfig}), so verification never leaves the process.
+ * Verification runs in a {@code gateway.jwt.verify} observation, traced as a
+ * child of the request's server span.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+    private final JwtParser parser;
+    private final GatewayIdentitySigner identitySigner;
+    private final List<PathPattern> protectedPaths;
+    private final ObservationRegistry observationRegistry;
+
+    public JwtAuthenticationFilter(SigningKeyResolver keyResolver,
+                                   GatewayIdentitySigner identitySigner,
+                                   @Value("${gateway.auth.protected-paths:/api/**}") List<String> protectedPaths,
+                                   ObservationRegistry observationRegistry) {
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyResolver).build();
+        this.identitySigner = identitySigner;
+        this.protectedPaths = protectedPaths.stream()
+                .map(String::trim)
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // WebFlux keeps the server request observation in the Reactor context, not a ThreadLocal
+        return Mono.deferContextual(context ->
+                filter(exchange, chain, context.getOrDefault(ObservationThreadLocalAccessor.KEY, null)));
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Observation parent) {
+        ServerHttpRequest request = exchange.getRequest();
+        String token = extractToken(request);
+        GatewayIdentity identity = token == null ? null : Observation.createNotStarted("gateway.jwt.verify", observationRegistry)
+                .parentObservation(parent)
+                .observe(() -> verify(token));
+
+        if (identity == null && requiresAuthentication(request)) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+
+        ServerHttpRequest forwarded = request.mutate()
+                .headers(headers -> {
+                    GatewayIdentitySigner.HEADERS.forEach(headers::remove);
+                    if (identity != null) {
+                        identitySigner.sign(identity).forEach(headers::set);
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private boolean requiresAuthentication(ServerHttpRequest request) {
+        if (HttpMethod.OPTIONS.equals(request.getMethod())) {
+            return false;
+        }
+        var path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : protectedPaths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Services check the forwarded token id against their revocation lists, so a token needs an expiry to be forwarded
+    private GatewayIdentity verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            return new GatewayIdentity(claims.getSubject(), claims.getId(), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String extractToken(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        HttpCookie cookie = request.getCookies().getFirst("jwt");
+        return cookie != null ? cookie.getValue() : null;
+    }
+}
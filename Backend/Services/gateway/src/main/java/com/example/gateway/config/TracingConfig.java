@@ -0,0 +1,33 @@
+package com.example.gateway.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.propagation.ContextPropagators;
+
+/**
+ * The gateway is the head of every trace. It ignores any trace context the
+ * client sends and starts a new trace for each request, so Boot's
+ * probability sampler decides on a trace id generated here. Honouring an
+ * incoming traceparent would let a client force sampling: its sampled flag
+ * would be followed, and even a ratio sampler keyed on the trace id can be
+ * steered by picking a low id. Downstream services follow the decision made
+ * here; the traceparent injected towards them is unchanged.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TracingConfig {
+
+    // Replaces Boot's OtelPropagator: injection is the same, extraction never sees the client's headers
+    @Bean
+    public OtelPropagator edgePropagator(ContextPropagators contextPropagators, Tracer tracer) {
+        return new OtelPropagator(contextPropagators, tracer) {
+            @Override
+            public <C> Span.Builder extract(C carrier, Getter<C> getter) {
+                return super.extract(carrier, (ignored, key) -> null);
+            }
+        };
+    }
+}
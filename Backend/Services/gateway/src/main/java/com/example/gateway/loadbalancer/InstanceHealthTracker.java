@@ -0,0 +1,126 @@
+package com.example.gateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks outstanding requests per instance and temporarily ejects instances
+ * that return 5xx, fail to connect or answer slower than the configured
+ * threshold several times in a row. Fed by the gateway's load-balancer
+ * lifecycle hooks, so it never adds work beyond a few atomic updates.
+ */
+@Component
+public class InstanceHealthTracker implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final ConcurrentMap<String, InstanceState> states = new ConcurrentHashMap<>();
+    private final int failureThreshold;
+    private final long slowThresholdNanos;
+    private final long ejectionNanos;
+
+    public InstanceHealthTracker(@Value("${gateway.loadbalancer.failure-threshold:5}") int failureThreshold,
+                                 @Value("${gateway.loadbalancer.slow-threshold:2s}") Duration slowThreshold,
+                                 @Value("${gateway.loadbalancer.ejection-duration:30s}") Duration ejection) {
+        this.failureThreshold = failureThreshold;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.ejectionNanos = ejection.toNanos();
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() != null) {
+            request.getContext().setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            state(lbResponse.getServer()).outstanding.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceState state = state(lbResponse.getServer());
+        state.outstanding.decrementAndGet();
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        recordOutcome(state, isFailure(completionContext));
+    }
+
+    public int outstanding(ServiceInstance instance) {
+        InstanceState state = states.get(key(instance));
+        return state != null ? Math.max(0, state.outstanding.get()) : 0;
+    }
+
+    public boolean isEjected(ServiceInstance instance) {
+        InstanceState state = states.get(key(instance));
+        return state != null && state.ejectedUntil - System.nanoTime() > 0;
+    }
+
+    void recordOutcome(ServiceInstance instance, boolean failed) {
+        recordOutcome(state(instance), failed);
+    }
+
+    private void recordOutcome(InstanceState state, boolean failed) {
+        if (!failed) {
+            state.consecutiveFailures.set(0);
+        } else if (state.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            state.consecutiveFailures.set(0);
+            state.ejectedUntil = System.nanoTime() + ejectionNanos;
+        }
+    }
+
+    private boolean isFailure(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        ResponseData response = completionContext.getClientResponse();
+        if (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError()) {
+            return true;
+        }
+        Request<RequestDataContext> request = completionContext.getLoadBalancerRequest();
+        if (request != null && request.getContext() != null && request.getContext().getRequestStartTime() > 0) {
+            return System.nanoTime() - request.getContext().getRequestStartTime() > slowThresholdNanos;
+        }
+        return false;
+    }
+
+    private InstanceState state(ServiceInstance instance) {
+        return states.computeIfAbsent(key(instance), k -> new InstanceState());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class InstanceState {
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        volatile long ejectedUntil = System.nanoTime();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.gateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = GatewayLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
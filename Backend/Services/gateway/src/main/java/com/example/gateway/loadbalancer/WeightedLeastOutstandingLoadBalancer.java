@@ -0,0 +1,86 @@
+package com.example.gateway.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Picks an instance from the cached registry snapshot using two random
+ * choices, preferring the one with fewer outstanding requests per unit of
+ * weight (eureka metadata {@code weight}, default 1). Ejected instances are
+ * skipped unless every instance is ejected, in which case all are used.
+ */
+public class WeightedLeastOutstandingLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    static final String WEIGHT_METADATA_KEY = "weight";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceHealthTracker healthTracker;
+
+    public WeightedLeastOutstandingLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                                InstanceHealthTracker healthTracker) {
+        this.supplierProvider = supplierProvider;
+        this.healthTracker = healthTracker;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::select);
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!healthTracker.isEjected(instance)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(load(a) <= load(b) ? a : b);
+    }
+
+    private double load(ServiceInstance instance) {
+        return (healthTracker.outstanding(instance) + 1) / (double) weight(instance);
+    }
+
+    private static int weight(ServiceInstance instance) {
+        String weight = instance.getMetadata() != null ? instance.getMetadata().get(WEIGHT_METADATA_KEY) : null;
+        if (weight == null) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(weight.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -3,7 +3,11 @@ package com.example.gateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"jwt.jwks.uri=http://127.0.0.1:9/.well-known/jwks.json",
+		"gateway.identity.secret=AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=",
+		"eureka.client.enabled=false"
+})
 class GatewayApplicationTests {
 
 	@Test
@@ -0,0 +1,129 @@
+package com.example.gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.example.gatewayidentity.GatewayIdentity;
+import com.example.gatewayidentity.GatewayIdentitySigner;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Mono;
+
+class JwtAuthenticationFilterTests {
+
+	private static final KeyPair KEY = generate();
+
+	private final GatewayIdentitySigner signer =
+			new GatewayIdentitySigner(Base64.getEncoder().encodeToString(new byte[32]), Duration.ofSeconds(30));
+	private final List<String> observed = new ArrayList<>();
+	private final ObservationRegistry observations = ObservationRegistry.create();
+	private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(new SigningKeyResolverAdapter() {
+		@Override
+		public Key resolveSigningKey(JwsHeader header, Claims claims) {
+			return "k1".equals(header.getKeyId()) ? KEY.getPublic() : null;
+		}
+	}, signer, List.of("/api/**"), observations);
+
+	JwtAuthenticationFilterTests() {
+		observations.observationConfig().observationHandler(new ObservationHandler<>() {
+			@Override
+			public void onStart(Observation.Context context) {
+				observed.add(context.getName());
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return true;
+			}
+		});
+	}
+
+	@Test
+	void rejectsProtectedPathWithoutToken() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/parents/1"));
+		filter.filter(exchange, e -> Mono.empty()).block();
+		assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+	}
+
+	@Test
+	void forwardsSignedIdentityFromCookieAndStripsSpoofedHeaders() {
+		AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/parents/1")
+				.header(GatewayIdentitySigner.SUBJECT_HEADER, "mallory@example.com")
+				.header(GatewayIdentitySigner.TOKEN_ID_HEADER, "other-jti")
+				.cookie(new org.springframework.http.HttpCookie("jwt", token("alice@example.com"))));
+		filter.filter(exchange, e -> {
+			forwarded.set(e.getRequest());
+			return Mono.empty();
+		}).block();
+		var headers = forwarded.get().getHeaders();
+		assertEquals(List.of("alice%40example.com"), headers.get(GatewayIdentitySigner.SUBJECT_HEADER));
+		GatewayIdentity identity = signer.verify(headers::getFirst);
+		assertEquals("alice@example.com", identity.subject());
+		assertEquals("jti-1", identity.tokenId());
+		assertEquals(List.of("gateway.jwt.verify"), observed);
+	}
+
+	@Test
+	void passesPublicPathWithoutIdentity() {
+		AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login")
+				.header(GatewayIdentitySigner.SUBJECT_HEADER, "mallory@example.com")
+				.header(GatewayIdentitySigner.SIGNATURE_HEADER, "forged"));
+		filter.filter(exchange, e -> {
+			forwarded.set(e.getRequest());
+			return Mono.empty();
+		}).block();
+		for (String header : GatewayIdentitySigner.HEADERS) {
+			assertNull(forwarded.get().getHeaders().getFirst(header), header);
+		}
+		assertTrue(observed.isEmpty());
+	}
+
+	private static String token(String subject) {
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "k1")
+				.setSubject(subject)
+				.setId("jti-1")
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(KEY.getPrivate(), SignatureAlgorithm.ES256)
+				.compact();
+	}
+
+	private static KeyPair generate() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+			generator.initialize(new ECGenParameterSpec("secp256r1"));
+			return generator.generateKeyPair();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
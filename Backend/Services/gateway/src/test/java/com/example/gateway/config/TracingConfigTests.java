@@ -0,0 +1,47 @@
+package com.example.gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+
+class TracingConfigTests {
+
+	private static final String CLIENT_TRACE_ID = "00000000000000000000000000000001";
+
+	private final OtelPropagator propagator = new TracingConfig().edgePropagator(
+			ContextPropagators.create(W3CTraceContextPropagator.getInstance()),
+			SdkTracerProvider.builder().build().get("test"));
+
+	@Test
+	void clientTraceparentStartsANewTrace() {
+		Map<String, String> incoming = Map.of("traceparent", "00-" + CLIENT_TRACE_ID + "-00f067aa0ba902b7-01");
+
+		Span span = propagator.extract(incoming, Map::get).start();
+
+		assertNotEquals(CLIENT_TRACE_ID, span.context().traceId());
+		assertNull(span.context().parentId());
+		span.end();
+	}
+
+	@Test
+	void injectionIsUnchanged() {
+		Span span = propagator.extract(Map.<String, String>of(), Map::get).start();
+		Map<String, String> outgoing = new HashMap<>();
+
+		propagator.inject(span.context(), outgoing, Map::put);
+
+		assertTrue(outgoing.get("traceparent").contains(span.context().traceId()));
+		span.end();
+	}
+}
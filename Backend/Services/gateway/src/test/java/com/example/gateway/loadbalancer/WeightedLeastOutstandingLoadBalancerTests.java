@@ -0,0 +1,48 @@
+package com.example.gateway.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+class WeightedLeastOutstandingLoadBalancerTests {
+
+	private final InstanceHealthTracker tracker = new InstanceHealthTracker(2, Duration.ofSeconds(2), Duration.ofMinutes(1));
+	private final WeightedLeastOutstandingLoadBalancer balancer = new WeightedLeastOutstandingLoadBalancer(null, tracker);
+
+	private final ServiceInstance a = new DefaultServiceInstance("a", "parent-service", "host-a", 8082, false);
+	private final ServiceInstance b = new DefaultServiceInstance("b", "parent-service", "host-b", 8082, false,
+			Map.of(WeightedLeastOutstandingLoadBalancer.WEIGHT_METADATA_KEY, "1"));
+
+	@Test
+	void skipsEjectedInstances() {
+		tracker.recordOutcome(a, true);
+		tracker.recordOutcome(a, true);
+		assertTrue(tracker.isEjected(a));
+		for (int i = 0; i < 20; i++) {
+			assertSame(b, balancer.select(List.of(a, b)).getServer());
+		}
+	}
+
+	@Test
+	void usesEjectedInstancesWhenNothingElseIsLeft() {
+		tracker.recordOutcome(a, true);
+		tracker.recordOutcome(a, true);
+		assertSame(a, balancer.select(List.of(a)).getServer());
+	}
+
+	@Test
+	void successResetsFailureCount() {
+		tracker.recordOutcome(a, true);
+		tracker.recordOutcome(a, false);
+		tracker.recordOutcome(a, true);
+		assertTrue(!tracker.isEjected(a));
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.example.jwks;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Decodes an RFC 7517 JWK Set into public keys by {@code kid}. Only EC P-256
+ * signature keys are understood; anything else in the set is skipped so a
+ * key type added later on the issuer side does not break existing verifiers.
+ */
+final class JwkSet {
+    private static final Logger log = LoggerFactory.getLogger(JwkSet.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ECParameterSpec P256 = p256();
+
+    private JwkSet() {
+    }
+
+    static Map<String, PublicKey> parse(byte[] document) throws IOException {
+        JsonNode keys = MAPPER.readTree(document).path("keys");
+        if (!keys.isArray()) {
+            throw new IOException("JWK Set has no keys array");
+        }
+        Map<String, PublicKey> byKid = new HashMap<>();
+        for (JsonNode jwk : keys) {
+            String kid = jwk.path("kid").asText(null);
+            if (kid == null || !"EC".equals(jwk.path("kty").asText()) || !"P-256".equals(jwk.path("crv").asText())
+                    || (jwk.has("use") && !"sig".equals(jwk.path("use").asText()))) {
+                log.debug("Skipping unsupported JWK {}", kid);
+                continue;
+            }
+            byKid.put(kid, ecPublicKey(kid, jwk.path("x").asText(), jwk.path("y").asText()));
+        }
+        return Map.copyOf(byKid);
+    }
+
+    private static PublicKey ecPublicKey(String kid, String x, String y) throws IOException {
+        try {
+            ECPoint point = new ECPoint(coordinate(x), coordinate(y));
+            return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, P256));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IOException("JWK " + kid + " is not a valid P-256 public key", e);
+        }
+    }
+
+    private static BigInteger coordinate(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.jwks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a local copy of an issuer's JWK Set so tokens can be verified without
+ * a call per request. Lookups only read the current immutable snapshot; all
+ * fetching happens on one background thread:
+ * <ul>
+ * <li>scheduled refreshes follow the response's {@code max-age}, clamped to
+ *     [{@code minRefreshInterval}, {@code refreshInterval}] and jittered so
+ *     instances do not refetch in step, and revalidate with the ETag;</li>
+ * <li>a lookup of an unknown {@code kid} (a freshly rotated key) pulls the
+ *     next refresh forward, at most once per {@code minRefreshInterval};</li>
+ * <li>failed fetches keep the last good keys and retry with exponential
+ *     backoff capped at {@code refreshInterval}; until the first fetch has
+ *     succeeded there are no keys to fall back on, so they retry every
+ *     {@code minRefreshInterval} instead.</li>
+ * </ul>
+ */
+public class JwksClient implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JwksClient.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])max-age=(\\d+)");
+
+    private final URI uri;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final HttpClient http;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile KeySet keySet = KeySet.EMPTY;
+    // nanoTime before which an unknown kid does not trigger another fetch
+    private final AtomicLong missRefreshNotBefore = new AtomicLong(System.nanoTime());
+    private ScheduledFuture<?> next; // guarded by this
+    private int consecutiveFailures; // refresh thread only
+
+    public JwksClient(URI uri, Duration refreshInterval, Duration minRefreshInterval) {
+        if (minRefreshInterval.isNegative() || minRefreshInterval.isZero() || refreshInterval.compareTo(minRefreshInterval) < 0) {
+            throw new IllegalArgumentException("Need 0 < minRefreshInterval <= refreshInterval, got "
+                    + minRefreshInterval + " and " + refreshInterval);
+        }
+        this.uri = uri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the first fetch right away on the refresh thread and returns
+     * without waiting for it, so a slow or unreachable issuer never holds up
+     * the caller (typically bean initialization). Lookups return null until a
+     * fetch succeeds; a failed fetch is logged and retried every
+     * {@code minRefreshInterval}.
+     */
+    public void start() {
+        reschedule(Duration.ZERO);
+    }
+
+    /** Returns the published key for {@code kid}, or null if it is not (yet) known. */
+    public PublicKey key(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        PublicKey key = keySet.keys.get(kid);
+        if (key == null) {
+            refreshSoon();
+        }
+        return key;
+    }
+
+    public Set<String> keyIds() {
+        return keySet.keys.keySet();
+    }
+
+    @Override
+    public synchronized void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void refreshSoon() {
+        long notBefore = missRefreshNotBefore.get();
+        if (System.nanoTime() - notBefore >= 0
+                && missRefreshNotBefore.compareAndSet(notBefore, System.nanoTime() + minRefreshInterval.toNanos())) {
+            reschedule(Duration.ZERO);
+        }
+    }
+
+    private void run() {
+        synchronized (this) {
+            next = null;
+        }
+        reschedule(refresh());
+    }
+
+    // Only ever moves the next fetch earlier
+    private synchronized void reschedule(Duration delay) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        if (next != null) {
+            if (next.getDelay(TimeUnit.NANOSECONDS) <= delay.toNanos()) {
+                return;
+            }
+            next.cancel(false);
+        }
+        next = scheduler.schedule(this::run, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /** Fetches once and returns the delay until the next scheduled fetch. */
+    private Duration refresh() {
+        missRefreshNotBefore.set(System.nanoTime() + minRefreshInterval.toNanos());
+        try {
+            Duration maxAge = fetch();
+            consecutiveFailures = 0;
+            return jitter(clamp(maxAge));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return refreshInterval;
+        } catch (IOException | RuntimeException e) {
+            consecutiveFailures++;
+            Duration backoff = keySet == KeySet.EMPTY
+                    ? minRefreshInterval
+                    : clamp(minRefreshInterval.multipliedBy(1L << Math.min(consecutiveFailures - 1, 20)));
+            log.warn("Fetching JWKS from {} failed ({} in a row), retrying in {}: {}", uri, consecutiveFailures, backoff, e.toString());
+            return jitter(backoff);
+        }
+    }
+
+    private Duration fetch() throws IOException, InterruptedException {
+        KeySet current = keySet;
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/jwk-set+json, application/json");
+        if (current.etag != null) {
+            request.header("If-None-Match", current.etag);
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        Duration maxAge = maxAge(response);
+        if (response.statusCode() == 304 && current.etag != null) {
+            return maxAge;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        Map<String, PublicKey> keys = JwkSet.parse(response.body());
+        keySet = new KeySet(keys, response.headers().firstValue("ETag").orElse(null));
+        if (!keys.keySet().equals(current.keys.keySet())) {
+            log.info("Loaded JWKS keys {} from {}", keys.keySet(), uri);
+        }
+        return maxAge;
+    }
+
+    private static Duration maxAge(HttpResponse<?> response) {
+        return response.headers().firstValue("Cache-Control")
+                .map(MAX_AGE::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> Duration.ofSeconds(Long.parseLong(matcher.group(1))))
+                .orElse(null);
+    }
+
+    private Duration clamp(Duration delay) {
+        if (delay == null || delay.compareTo(refreshInterval) > 0) {
+            return refreshInterval;
+        }
+        return delay.compareTo(minRefreshInterval) < 0 ? minRefreshInterval : delay;
+    }
+
+    // 80-100% of the delay
+    private static Duration jitter(Duration delay) {
+        return Duration.ofNanos((long) (delay.toNanos() * (0.8 + 0.2 * ThreadLocalRandom.current().nextDouble())));
+    }
+
+    private record KeySet(Map<String, PublicKey> keys, String etag) {
+        static final KeySet EMPTY = new KeySet(Map.of(), null);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.jwks;
+
+import java.security.Key;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Resolves a token's verification key from its {@code kid} header against a
+ * {@link JwksClient}. Only ES256 is accepted, so a token cannot pick a
+ * different algorithm for a published key. Never blocks: an unknown kid
+ * fails this token and schedules a JWKS refresh for the ones after it.
+ */
+public class JwksKeyResolver extends SigningKeyResolverAdapter {
+
+    private final JwksClient client;
+
+    public JwksKeyResolver(JwksClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolve(header);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+        return resolve(header);
+    }
+
+    private Key resolve(JwsHeader header) {
+        if (!SignatureAlgorithm.ES256.getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Unsupported signature algorithm " + header.getAlgorithm());
+        }
+        Key key = client.key(header.getKeyId());
+        if (key == null) {
+            throw new SignatureException("Unknown signing key " + header.getKeyId());
+        }
+        return key;
+    }
+}
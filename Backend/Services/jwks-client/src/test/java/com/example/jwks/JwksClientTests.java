@@ -0,0 +1,251 @@
+package com.example.jwks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwksClientTests {
+
+	private final Map<String, KeyPair> published = new LinkedHashMap<>();
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger notModified = new AtomicInteger();
+	private volatile int status = 200;
+	private volatile long responseDelayMillis;
+	private HttpServer server;
+	private JwksClient client;
+
+	@BeforeEach
+	void startIssuer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/.well-known/jwks.json", this::serve);
+		server.start();
+	}
+
+	@AfterEach
+	void stop() {
+		if (client != null) {
+			client.close();
+		}
+		server.stop(0);
+	}
+
+	@Test
+	void loadsKeysOnStartAndRevalidatesWithETag() throws Exception {
+		KeyPair k1 = publish("k1");
+		client = client(Duration.ofHours(1), Duration.ofMillis(100));
+		client.start();
+		await(() -> !client.keyIds().isEmpty());
+
+		assertThat(client.keyIds()).containsExactly("k1");
+		assertThat(client.key("k1")).isEqualTo(k1.getPublic());
+		assertThat(requests).hasValue(1);
+
+		// Unknown kid pulls the refresh forward; the set is unchanged, so the issuer answers 304
+		assertThat(client.key("k2")).isNull();
+		await(() -> notModified.get() == 1);
+		assertThat(client.key("k1")).isEqualTo(k1.getPublic());
+	}
+
+	@Test
+	void unknownKidFetchesRotatedKeyAtMostOncePerMinInterval() throws Exception {
+		publish("k1");
+		client = client(Duration.ofHours(1), Duration.ofMillis(500));
+		client.start();
+		await(() -> !client.keyIds().isEmpty());
+
+		KeyPair k2 = publish("k2");
+		// Within minRefreshInterval of the startup fetch: misses do not reach the issuer
+		for (int i = 0; i < 100; i++) {
+			assertThat(client.key("k2")).isNull();
+		}
+		Thread.sleep(100);
+		assertThat(requests).hasValue(1);
+
+		Thread.sleep(500);
+		for (int i = 0; i < 100; i++) {
+			client.key("k2");
+		}
+		await(() -> client.key("k2") != null);
+		assertThat(client.key("k2")).isEqualTo(k2.getPublic());
+		assertThat(requests).hasValue(2);
+	}
+
+	@Test
+	void startsWithoutIssuerAndRecoversWithBackoff() throws Exception {
+		status = 503;
+		client = client(Duration.ofHours(1), Duration.ofMillis(100));
+		client.start();
+		await(() -> requests.get() >= 1);
+		assertThat(client.keyIds()).isEmpty();
+
+		KeyPair k1 = publish("k1");
+		status = 200;
+		await(() -> client.key("k1") != null);
+		assertThat(client.key("k1")).isEqualTo(k1.getPublic());
+	}
+
+	@Test
+	void retriesAtMinIntervalUntilTheFirstFetchSucceeds() throws Exception {
+		status = 503;
+		client = client(Duration.ofHours(1), Duration.ofMillis(100));
+		client.start();
+		// Doubling from 100ms would take over 50s to reach ten attempts
+		await(() -> requests.get() >= 10);
+		assertThat(client.keyIds()).isEmpty();
+	}
+
+	@Test
+	void startDoesNotWaitForTheFirstFetch() throws Exception {
+		KeyPair k1 = publish("k1");
+		responseDelayMillis = 1000;
+		client = client(Duration.ofHours(1), Duration.ofMillis(100));
+
+		long started = System.nanoTime();
+		client.start();
+		assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(500));
+		assertThat(client.key("k1")).isNull();
+
+		await(() -> client.key("k1") != null);
+		assertThat(client.key("k1")).isEqualTo(k1.getPublic());
+	}
+
+	@Test
+	void keyResolverAcceptsOnlyES256TokensFromPublishedKeys() throws Exception {
+		KeyPair k1 = publish("k1");
+		client = client(Duration.ofHours(1), Duration.ofSeconds(30));
+		client.start();
+		await(() -> !client.keyIds().isEmpty());
+		JwtParser parser = Jwts.parserBuilder().setSigningKeyResolver(new JwksKeyResolver(client)).build();
+
+		assertThat(parser.parseClaimsJws(token("k1", k1)).getBody().getSubject()).isEqualTo("alice@example.com");
+		assertThatThrownBy(() -> parser.parseClaimsJws(token("k9", generate())))
+				.isInstanceOf(SignatureException.class);
+		assertThatThrownBy(() -> parser.parseClaimsJws(token("k1", generate())))
+				.isInstanceOf(SignatureException.class);
+		String hmac = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "k1")
+				.setSubject("alice@example.com")
+				.signWith(Keys.hmacShaKeyFor(new byte[32]), SignatureAlgorithm.HS256)
+				.compact();
+		assertThatThrownBy(() -> parser.parseClaimsJws(hmac)).isInstanceOf(UnsupportedJwtException.class);
+	}
+
+	private JwksClient client(Duration refreshInterval, Duration minRefreshInterval) {
+		URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+		return new JwksClient(uri, refreshInterval, minRefreshInterval);
+	}
+
+	private KeyPair publish(String kid) throws GeneralSecurityException {
+		KeyPair pair = generate();
+		published.put(kid, pair);
+		return pair;
+	}
+
+	private void serve(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		try {
+			Thread.sleep(responseDelayMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (status != 200) {
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+			return;
+		}
+		byte[] body = jwks().getBytes(StandardCharsets.UTF_8);
+		String etag = "\"" + Arrays.hashCode(body) + "\"";
+		exchange.getResponseHeaders().set("ETag", etag);
+		exchange.getResponseHeaders().set("Cache-Control", "max-age=3600, public");
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			notModified.incrementAndGet();
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		exchange.getResponseHeaders().set("Content-Type", "application/jwk-set+json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private String jwks() {
+		List<String> keys = new ArrayList<>();
+		// An RSA key the client does not understand must be skipped, not fail the set
+		keys.add("{\"kty\":\"RSA\",\"kid\":\"rsa\",\"n\":\"AQAB\",\"e\":\"AQAB\"}");
+		published.forEach((kid, pair) -> {
+			ECPublicKey key = (ECPublicKey) pair.getPublic();
+			keys.add("{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\",\"kid\":\"" + kid
+					+ "\",\"x\":\"" + coordinate(key.getW().getAffineX())
+					+ "\",\"y\":\"" + coordinate(key.getW().getAffineY()) + "\"}");
+		});
+		return "{\"keys\":[" + String.join(",", keys) + "]}";
+	}
+
+	private static String coordinate(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		byte[] fixed = new byte[32];
+		int length = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+	}
+
+	private static String token(String kid, KeyPair pair) {
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, kid)
+				.setSubject("alice@example.com")
+				.signWith(pair.getPrivate(), SignatureAlgorithm.ES256)
+				.compact();
+	}
+
+	private static KeyPair generate() throws GeneralSecurityException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		return generator.generateKeyPair();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+			Thread.sleep(10);
+		}
+	}
+
+}
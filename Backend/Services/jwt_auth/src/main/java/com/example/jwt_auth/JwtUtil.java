@@ -1,50 +1,100 @@
 package com.example.jwt_auth;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.stereotype.Component;
 
+import com.example.jwt_auth.jwks.SigningKey;
+import com.example.jwt_auth.jwks.SigningKeyRing;
+
+import java.security.Key;
 import java.util.Date;
-import javax.crypto.SecretKey;
+import java.util.UUID;
 
+/**
+ * Issues and verifies ES256 access tokens. Each token names its signing key
+ * in the {@code kid} header, so any service holding the published JWKS can
+ * verify it without a shared secret.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String SECRET;
-
     private final long EXPIRATION_TIME = 1000 * 60 * 60; // 1 hour
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    private final SigningKeyRing keyRing;
+
+    // Built once; JwtParser instances are immutable and thread-safe, and the
+    // resolver reads the current key ring on every parse.
+    private final JwtParser parser;
+
+    public JwtUtil(SigningKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new KeyRingResolver()).build();
     }
 
     public String generateToken(String username) {
+        SigningKey key = keyRing.active();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
                 .setSubject(username)
+                // jti: lets a single token be revoked before it expires
+                .setId(UUID.randomUUID().toString())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(key.privateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateToken(String token) {
+        return verify(token).isValid();
+    }
+
+    /**
+     * Decodes, checks the signature and expiry, and returns the claims in a
+     * single parse. Never throws for a bad token; the failure reason is
+     * reported on the result instead.
+     */
+    public TokenVerification verify(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenVerification.failed(TokenVerification.Failure.MISSING);
+        }
         try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            // Log or handle specific exceptions like ExpiredJwtException, etc.
-            return false;
+            Claims claims = parseClaims(token);
+            Date expiration = claims.getExpiration();
+            return TokenVerification.valid(new TokenVerification.Principal(
+                    claims.getSubject(),
+                    expiration != null ? expiration.toInstant() : null,
+                    claims));
+        } catch (ExpiredJwtException e) {
+            return TokenVerification.failed(TokenVerification.Failure.EXPIRED);
+        } catch (SignatureException e) {
+            return TokenVerification.failed(TokenVerification.Failure.BAD_SIGNATURE);
+        } catch (MalformedJwtException e) {
+            return TokenVerification.failed(TokenVerification.Failure.MALFORMED);
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenVerification.failed(TokenVerification.Failure.INVALID);
+        }
+    }
+
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // Only ES256 is accepted, so a token cannot pick a weaker algorithm for the same kid
+    private final class KeyRingResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            if (!SignatureAlgorithm.ES256.getValue().equals(header.getAlgorithm())) {
+                throw new UnsupportedJwtException("Unsupported signature algorithm " + header.getAlgorithm());
+            }
+            SigningKey key = keyRing.find(header.getKeyId());
+            if (key == null) {
+                throw new SignatureException("Unknown signing key " + header.getKeyId());
+            }
+            return key.publicKey();
         }
     }
 }
@@ -0,0 +1,42 @@
+package com.example.jwt_auth;
+
+import java.time.Instant;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Outcome of a single {@link JwtUtil#verify(String)} pass: either the parsed
+ * principal or the reason the token was rejected.
+ */
+public record TokenVerification(Principal principal, Failure failure) {
+
+    public enum Failure {
+        MISSING,
+        EXPIRED,
+        BAD_SIGNATURE,
+        MALFORMED,
+        INVALID,
+        // Signature and expiry check out, but the token was revoked on logout
+        REVOKED
+    }
+
+    public record Principal(String subject, Instant expiresAt, Claims claims) {
+
+        /** The token's {@code jti} claim; null for tokens issued before it was added. */
+        public String tokenId() {
+            return claims != null ? claims.getId() : null;
+        }
+    }
+
+    public static TokenVerification valid(Principal principal) {
+        return new TokenVerification(principal, null);
+    }
+
+    public static TokenVerification failed(Failure failure) {
+        return new TokenVerification(null, failure);
+    }
+
+    public boolean isValid() {
+        return principal != null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.jwt_auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.revocation.TokenRevocationList;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Remembers tokens that already passed {@link JwtUtil#verify(String)} so that
+ * a token presented again (e.g. by /auth/session polling) skips the signature
+ * check. Entries are keyed by a SHA-256 digest of the token and expire at the
+ * token's own exp claim. Only successful verifications are cached.
+ * <p>
+ * {@link #verify(String)} is the one place a request's token is checked: it
+ * also rejects tokens on the {@link TokenRevocationList}, after the cache
+ * lookup, so a token cached before it was revoked is still refused.
+ * <p>
+ * The cache ticks on {@code clock} as epoch nanos, so an entry's expiry is
+ * simply its exp claim minus Caffeine's current time.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final boolean enabled;
+    private final Cache<String, TokenVerification.Principal> cache;
+    private final MessageDigest digestPrototype;
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              TokenRevocationList revocationList,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this(jwtUtil, revocationList, meterRegistry, enabled, maxSize, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(JwtUtil jwtUtil, TokenRevocationList revocationList, MeterRegistry meterRegistry,
+                       boolean enabled, long maxSize, Clock clock) {
+        this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.enabled = enabled;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .ticker(() -> epochNanos(clock.instant()))
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        try {
+            this.digestPrototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+        }
+    }
+
+    public TokenVerification verify(String token) {
+        TokenVerification verification = verifySignature(token);
+        if (verification.isValid() && revocationList.isRevoked(verification.principal().tokenId(), verification.principal().expiresAt())) {
+            return TokenVerification.failed(TokenVerification.Failure.REVOKED);
+        }
+        return verification;
+    }
+
+    private TokenVerification verifySignature(String token) {
+        if (!enabled || token == null || token.isBlank()) {
+            return jwtUtil.verify(token);
+        }
+        String key = digest(token);
+        TokenVerification.Principal cached = cache.getIfPresent(key);
+        if (cached != null && (cached.expiresAt() == null || cached.expiresAt().isAfter(clock.instant()))) {
+            return TokenVerification.valid(cached);
+        }
+        TokenVerification verification = jwtUtil.verify(token);
+        if (verification.isValid() && verification.principal().expiresAt() != null) {
+            cache.put(key, verification.principal());
+        }
+        return verification;
+    }
+
+    /**
+     * Drops every cached token belonging to the given subject, e.g. on logout.
+     * This only frees memory: a token presented again is re-verified and cached
+     * again, rejecting it is up to the {@link TokenRevocationList} check in {@link #verify(String)}.
+     */
+    public void evictSubject(String subject) {
+        cache.asMap().values().removeIf(principal -> subject.equals(principal.subject()));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private String digest(String token) {
+        MessageDigest md;
+        try {
+            md = (MessageDigest) digestPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getEncoder().withoutPadding().encodeToString(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static long epochNanos(Instant instant) {
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<String, TokenVerification.Principal> {
+        @Override
+        public long expireAfterCreate(String key, TokenVerification.Principal value, long currentTime) {
+            return Math.max(0, epochNanos(value.expiresAt()) - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenVerification.Principal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenVerification.Principal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
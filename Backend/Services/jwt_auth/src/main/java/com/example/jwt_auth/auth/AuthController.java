@@ -11,7 +11,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.jwt_auth.user.UserRepository;
+import com.example.jwt_auth.TokenVerification;
+import com.example.jwt_auth.config.JwtFilter;
+import com.example.jwt_auth.password.PasswordHashingRejectedException;
+import com.example.jwt_auth.revocation.TokenRevocationService;
+import com.example.jwt_auth.throttle.LoginAttemptLimiter;
+import com.example.jwt_auth.user.UserLookupService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,7 +26,9 @@ import jakarta.servlet.http.HttpServletResponse;
 public class AuthController {
 
     @Autowired private AuthService authService;
-    @Autowired private UserRepository userRepository;
+    @Autowired private UserLookupService userLookupService;
+    @Autowired private LoginAttemptLimiter loginAttemptLimiter;
+    @Autowired private TokenRevocationService tokenRevocationService;
 
     @GetMapping("/")
     public String hello() {
@@ -33,6 +40,8 @@ public class AuthController {
         try {
             authService.register(request);
             return ResponseEntity.ok("User registered");
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (RuntimeException e) {
             if (e.getMessage() != null && e.getMessage().contains("User already exists")) {
                 return ResponseEntity.status(409).body("User already exists");
@@ -42,8 +51,10 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request, HttpServletResponse response) {
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest, HttpServletResponse response) {
+        loginAttemptLimiter.checkAttempt(request.username, httpRequest.getRemoteAddr());
         AuthResponse authResponse = authService.loginWithTokens(request);
+        loginAttemptLimiter.loginSucceeded(request.username);
         ResponseCookie cookie = ResponseCookie.from("jwt", authResponse.token)
                 .httpOnly(true)
                 .secure(false) // For local dev, allow HTTP
@@ -56,7 +67,8 @@ public class AuthController {
     }
 
     @PostMapping("/verify")
-    public ResponseEntity<Boolean> verify(@RequestBody AuthRequest request) {
+    public ResponseEntity<Boolean> verify(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        loginAttemptLimiter.checkAttempt(request.username, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(authService.verifyPassword(request.username, request.password));
     }
 
@@ -75,18 +87,13 @@ public class AuthController {
 
     @GetMapping("/session")
     public ResponseEntity<Boolean> session(HttpServletRequest request) {
-        String token = null;
-        if (request.getCookies() != null) {
-            for (var cookie : request.getCookies()) {
-                if ("jwt".equals(cookie.getName())) {
-                    token = cookie.getValue();
-                    break;
-                }
-            }
+        // JwtFilter has already verified the cookie token on this request; reuse its result
+        if (request.getAttribute(JwtFilter.COOKIE_VERIFICATION_ATTRIBUTE) instanceof TokenVerification verification) {
+            return ResponseEntity.ok(verification.isValid());
         }
+        String token = JwtFilter.extractCookieToken(request);
         if (token == null) return ResponseEntity.ok(false);
-        boolean valid = authService.validateToken(token);
-        return ResponseEntity.ok(valid);
+        return ResponseEntity.ok(authService.verifyToken(token).isValid());
     }
 
     @GetMapping("/me")
@@ -99,7 +106,13 @@ public class AuthController {
     public ResponseEntity<String> logout(Authentication auth, HttpServletResponse response) {
         if (auth != null) {
             String username = auth.getName();
-            userRepository.findByUsername(username).ifPresent(user -> authService.invalidateRefreshToken(user));
+            userLookupService.findByUsername(username).ifPresent(user -> authService.invalidateRefreshToken(user.id()));
+            authService.evictCachedTokens(username);
+            // The access token would otherwise stay usable until it expires; with the postgres
+            // channel the revocation also reaches parent-service, which checks the same list
+            if (auth.getDetails() instanceof TokenVerification.Principal principal) {
+                tokenRevocationService.revoke(principal);
+            }
         }
         ResponseCookie cookie = ResponseCookie.from("jwt", "")
                 .httpOnly(true)
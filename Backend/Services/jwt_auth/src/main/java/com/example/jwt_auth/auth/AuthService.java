@@ -9,86 +9,133 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.jwt_auth.JwtUtil;
+import com.example.jwt_auth.TokenVerification;
+import com.example.jwt_auth.VerifiedTokenCache;
+import com.example.jwt_auth.metrics.AuthMetrics;
+import com.example.jwt_auth.metrics.AuthMetrics.Stage;
 import com.example.jwt_auth.token.RefreshToken;
+import com.example.jwt_auth.token.RefreshTokenHasher;
 import com.example.jwt_auth.token.RefreshTokenRepository;
 import com.example.jwt_auth.user.User;
+import com.example.jwt_auth.user.UserLookupService;
 import com.example.jwt_auth.user.UserRepository;
+import com.example.jwt_auth.user.UserSnapshot;
 
+/**
+ * Password hashing and checks run outside any transaction: BCrypt takes
+ * hundreds of milliseconds on the hashing pool, and a transaction around it
+ * would hold a pooled connection the whole time. Only the database writes
+ * that follow open one.
+ */
 @Service
-@Transactional(readOnly = true)
 public class AuthService {
 
     @Autowired private AuthenticationManager authManager;
     @Autowired private UserRepository userRepository;
+    @Autowired private UserLookupService userLookupService;
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private JwtUtil jwtUtil;
     @Autowired private RefreshTokenRepository refreshTokenRepository;
-    @Transactional
+    @Autowired private VerifiedTokenCache tokenCache;
+    @Autowired private AuthMetrics metrics;
+    @Autowired private TransactionTemplate transactionTemplate;
+
     public void register(AuthRequest request) {
-        if (userRepository.findByUsername(request.username).isPresent()) {
+        if (userLookupService.findByUsername(request.username).isPresent()) {
             throw new RuntimeException("User already exists");
         }
-        User user = new User();
-        user.setUsername(request.username);
-        user.setPassword(passwordEncoder.encode(request.password));
-        userRepository.save(user);
+        String hash = passwordEncoder.encode(request.password);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User();
+            user.setUsername(request.username);
+            user.setPassword(hash);
+            userRepository.save(user);
+            userLookupService.evict(request.username);
+        });
     }
-    @Transactional
+
     public AuthResponse loginWithTokens(AuthRequest request) {
-        authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username, request.password)
-        );
-        User user = userRepository.findByUsername(request.username).orElseThrow();
-        String token = jwtUtil.generateToken(user.getUsername());
-        String refreshToken = createRefreshToken(user);
+        long start = System.nanoTime();
+        try {
+            authManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username, request.password)
+            );
+        } finally {
+            // Failed logins are recorded too; BCrypt costs the same either way
+            metrics.recordStage(Stage.AUTHENTICATE, start);
+        }
+        UserSnapshot user = userLookupService.findByUsername(request.username).orElseThrow();
+        start = System.nanoTime();
+        String token = jwtUtil.generateToken(user.username());
+        metrics.recordStage(Stage.GENERATE_TOKEN, start);
+        start = System.nanoTime();
+        String refreshToken = createRefreshToken(user.id());
+        metrics.recordStage(Stage.CREATE_REFRESH_TOKEN, start);
         return new AuthResponse(token, refreshToken);
     }
 
     public boolean verifyPassword(String username, String password) {
-        User user = userRepository.findByUsername(username)
+        String hash = userLookupService.findPasswordHash(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return passwordEncoder.matches(password, user.getPassword());
+        return passwordEncoder.matches(password, hash);
     }
-    @Transactional
+
     public void changePassword(String username, String oldPassword, String newPassword) {
-        User user = userRepository.findByUsername(username)
+        String oldHash = userLookupService.findPasswordHash(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordEncoder.matches(oldPassword, oldHash)) {
             throw new RuntimeException("Old password incorrect");
         }
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        String newHash = passwordEncoder.encode(newPassword);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // Changed by someone else while hashing: the checked password is no longer current
+            if (!oldHash.equals(user.getPassword())) {
+                throw new RuntimeException("Old password incorrect");
+            }
+            user.setPassword(newHash);
+            userRepository.save(user);
+        });
     }
     @Transactional
-    public String createRefreshToken(User user) {
-        refreshTokenRepository.deleteByUser(user);
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(Instant.now().plusSeconds(7 * 24 * 60 * 60)); // 7 days
-        refreshTokenRepository.save(refreshToken);
-        return refreshToken.getToken();
+    public String createRefreshToken(Long userId) {
+        String token = UUID.randomUUID().toString();
+        refreshTokenRepository.upsert(
+                userId,
+                RefreshTokenHasher.hash(token),
+                Instant.now().plusSeconds(7 * 24 * 60 * 60)); // 7 days
+        return token;
     }
 
+    @Transactional(readOnly = true)
     public String refreshAccessToken(String refreshTokenStr) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenStr)
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(RefreshTokenHasher.hash(refreshTokenStr))
                 .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
         if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
             throw new RuntimeException("Refresh token expired");
         }
 
-        return jwtUtil.generateToken(refreshToken.getUser().getUsername());
+        long start = System.nanoTime();
+        String token = jwtUtil.generateToken(refreshToken.getUser().getUsername());
+        metrics.recordStage(Stage.GENERATE_TOKEN, start);
+        return token;
     }
     @Transactional
-    public void invalidateRefreshToken(User user) {
-        refreshTokenRepository.deleteByUser(user);
+    public void invalidateRefreshToken(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    public void evictCachedTokens(String username) {
+        tokenCache.evictSubject(username);
     }
 
-    public boolean validateToken(String token) {
-        return jwtUtil.validateToken(token);
+    // Same check as JwtFilter, revocation included
+    public TokenVerification verifyToken(String token) {
+        return tokenCache.verify(token);
     }
 }
\ No newline at end of file
@@ -12,7 +12,9 @@ import org.springframework.stereotype.Component;
 import com.example.jwt_auth.JwtUtil;
 import com.example.jwt_auth.auth.AuthService;
 import com.example.jwt_auth.user.User;
+import com.example.jwt_auth.user.UserLookupService;
 import com.example.jwt_auth.user.UserRepository;
+import com.example.jwt_auth.user.UserSnapshot;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,21 +26,29 @@ public class CustomOAuth2SuccessHandler implements AuthenticationSuccessHandler
     private final JwtUtil jwtUtil;
     private final AuthService authService;
     private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
 
-    public CustomOAuth2SuccessHandler(JwtUtil jwtUtil, AuthService authService, UserRepository userRepository) {
+    public CustomOAuth2SuccessHandler(JwtUtil jwtUtil, AuthService authService, UserRepository userRepository,
+                                      UserLookupService userLookupService) {
         this.jwtUtil = jwtUtil;
         this.authService = authService;
         this.userRepository = userRepository;
+        this.userLookupService = userLookupService;
     }
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
         OAuth2AuthenticationToken oauthToken = (OAuth2AuthenticationToken) authentication;
         String email = oauthToken.getPrincipal().getAttribute("email");
-        User user = userRepository.findByUsername(email)
-                .orElseGet(() -> userRepository.save(new User(null, email, "")));
-        String token = jwtUtil.generateToken(user.getUsername());
-        String refreshToken = authService.createRefreshToken(user);
+        Long userId = userLookupService.findByUsername(email)
+                .map(UserSnapshot::id)
+                .orElseGet(() -> {
+                    User created = userRepository.save(new User(null, email, ""));
+                    userLookupService.evict(email);
+                    return created.getId();
+                });
+        String token = jwtUtil.generateToken(email);
+        String refreshToken = authService.createRefreshToken(userId);
 
         ResponseCookie cookie = ResponseCookie.from("jwt", token)
                 .httpOnly(true)
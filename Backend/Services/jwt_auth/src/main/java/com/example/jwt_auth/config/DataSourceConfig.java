@@ -0,0 +1,18 @@
+package com.example.jwt_auth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.datasourcetuning.DataSourcePoolSizer;
+
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfig {
+
+    // Static: a BeanPostProcessor has to exist before the DataSource it sizes
+    @Bean
+    public static DataSourcePoolSizer dataSourcePoolSizer(@Value("${auth.datasource.pool.per-core:0}") int perCore,
+                                                          @Value("${auth.datasource.pool.extra:1}") int extra) {
+        return new DataSourcePoolSizer(perCore, extra);
+    }
+}
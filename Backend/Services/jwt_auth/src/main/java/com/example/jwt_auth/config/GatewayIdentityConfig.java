@@ -0,0 +1,23 @@
+package com.example.jwt_auth.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.gatewayidentity.GatewayIdentitySigner;
+
+/**
+ * Checks the identity the gateway signs onto the requests it forwards, see
+ * {@link JwtFilter}. The secret is shared with the gateway.
+ */
+@Configuration(proxyBeanMethods = false)
+public class GatewayIdentityConfig {
+
+    @Bean
+    public GatewayIdentitySigner gatewayIdentitySigner(@Value("${gateway.identity.secret}") String secret,
+                                                       @Value("${gateway.identity.max-age:30s}") Duration maxAge) {
+        return new GatewayIdentitySigner(secret, maxAge);
+    }
+}
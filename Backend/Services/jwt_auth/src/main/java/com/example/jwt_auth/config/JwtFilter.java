@@ -2,55 +2,153 @@ package com.example.jwt_auth.config;
 
 import java.io.IOException;
 import java.util.Collections; // for empty authorities list
+import java.util.Date;
+import java.util.Locale;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.event.AuthorizationDeniedEvent;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.example.jwt_auth.JwtUtil;
+import com.example.jwt_auth.TokenVerification;
+import com.example.jwt_auth.VerifiedTokenCache;
+import com.example.gatewayidentity.GatewayIdentity;
+import com.example.gatewayidentity.GatewayIdentitySigner;
+import com.example.jwt_auth.metrics.AuthMetrics;
+import com.example.revocation.TokenRevocationList;
 
-import io.jsonwebtoken.JwtException; // handles all signature/expiration errors
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+/**
+ * Authenticates the request from its access token (Bearer header, else the
+ * jwt cookie). Requests that came through the gateway also carry the
+ * identity it verified the token for, signed with {@link GatewayIdentitySigner};
+ * that is taken instead of parsing the token again, and a request whose
+ * signed headers do not verify is rejected. Either way the token id is
+ * checked against the revocation list.
+ */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
-    private final JwtUtil jwtUtil;
+    // Set when the verified token came from the jwt cookie, so /auth/session can reuse the result.
+    public static final String COOKIE_VERIFICATION_ATTRIBUTE = JwtFilter.class.getName() + ".cookieVerification";
+    // Set when the request carried neither a Bearer header nor a jwt cookie
+    private static final String NO_TOKEN_ATTRIBUTE = JwtFilter.class.getName() + ".noToken";
 
-    public JwtFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final GatewayIdentitySigner identitySigner;
+    private final TokenRevocationList revocationList;
+    private final AuthMetrics metrics;
+    private final Tracer tracer;
+
+    public JwtFilter(VerifiedTokenCache tokenCache, GatewayIdentitySigner identitySigner,
+                     TokenRevocationList revocationList, AuthMetrics metrics, ObjectProvider<Tracer> tracer) {
+        this.tokenCache = tokenCache;
+        this.identitySigner = identitySigner;
+        this.revocationList = revocationList;
+        this.metrics = metrics;
+        // No Tracer bean when management.tracing.enabled=false
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         String token = null;
+        boolean fromCookie = false;
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
-        } else if (request.getCookies() != null) {
-            for (var cookie : request.getCookies()) {
-                if ("jwt".equals(cookie.getName())) {
-                    token = cookie.getValue();
-                    break;
-                }
-            }
+        } else {
+            token = extractCookieToken(request);
+            fromCookie = token != null;
         }
         if (token != null) {
-            try {
-                if (jwtUtil.validateToken(token)) {
-                    String username = jwtUtil.extractUsername(token);
-                    UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList());
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
-            } catch (JwtException ex) {
+            TokenVerification verification = verify(request, token, fromCookie);
+            if (fromCookie) {
+                request.setAttribute(COOKIE_VERIFICATION_ATTRIBUTE, verification);
+            }
+            if (verification.isValid()) {
+                UsernamePasswordAuthenticationToken auth =
+                    new UsernamePasswordAuthenticationToken(verification.principal().subject(), null, Collections.emptyList());
+                // Lets /auth/logout revoke exactly this token
+                auth.setDetails(verification.principal());
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            } else {
                 SecurityContextHolder.clearContext();
             }
+        } else {
+            request.setAttribute(NO_TOKEN_ATTRIBUTE, Boolean.TRUE);
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // A missing token only counts once authorization turns the request away; the public endpoints
+    // (login, register, JWKS, actuator scrapes) are called without one all the time
+    @EventListener
+    public void onAuthorizationDenied(AuthorizationDeniedEvent<?> event) {
+        if (event.getObject() instanceof HttpServletRequest request
+                && request.getDispatcherType() == DispatcherType.REQUEST
+                && request.getAttribute(NO_TOKEN_ATTRIBUTE) != null) {
+            metrics.recordMissingToken();
+        }
+    }
+
+    // Child span of the server request span; the tracer makes it non-recording when the trace is not sampled
+    private TokenVerification verify(HttpServletRequest request, String token, boolean fromCookie) {
+        Span span = tracer.nextSpan().name("jwt verify").start();
+        long start = System.nanoTime();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            // Signature, expiry and revocation
+            TokenVerification verification = request.getHeader(GatewayIdentitySigner.SIGNATURE_HEADER) != null
+                    ? verifyIdentity(request)
+                    : tokenCache.verify(token);
+            metrics.recordVerification(fromCookie, verification, start);
+            if (!span.isNoop()) {
+                span.tag("jwt.source", fromCookie ? "cookie" : "header");
+                span.tag("jwt.outcome", verification.isValid() ? "valid" : verification.failure().name().toLowerCase(Locale.ROOT));
+            }
+            return verification;
+        } finally {
+            span.end();
+        }
+    }
+
+    // The gateway signs only after verifying the token it forwards alongside, so this stands in for parsing it
+    private TokenVerification verifyIdentity(HttpServletRequest request) {
+        GatewayIdentity identity = identitySigner.verify(request::getHeader);
+        if (identity == null) {
+            return TokenVerification.failed(TokenVerification.Failure.INVALID);
+        }
+        if (revocationList.isRevoked(identity.tokenId(), identity.expiresAt())) {
+            return TokenVerification.failed(TokenVerification.Failure.REVOKED);
+        }
+        // Logout revokes by the principal's token id
+        Claims claims = Jwts.claims()
+                .setSubject(identity.subject())
+                .setId(identity.tokenId())
+                .setExpiration(Date.from(identity.expiresAt()));
+        return TokenVerification.valid(new TokenVerification.Principal(identity.subject(), identity.expiresAt(), claims));
+    }
+
+    public static String extractCookieToken(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (var cookie : request.getCookies()) {
+                if ("jwt".equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.jwt_auth.config;
 
+import java.time.Duration;
 import java.util.Collections;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,15 +11,18 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.example.jwt_auth.jwks.JwksController;
+import com.example.jwt_auth.password.BCryptStrengthCalibrator;
+import com.example.jwt_auth.password.OffloadingPasswordEncoder;
+import com.example.jwt_auth.user.UserLookupService;
 import com.example.jwt_auth.user.UserRepository;
 
 @Configuration
@@ -30,11 +35,11 @@ public class SecurityConfig {
     }
 
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
-        return username -> userRepository.findByUsername(username)
-                .map(user -> new org.springframework.security.core.userdetails.User(
-                        user.getUsername(),
-                        user.getPassword(),
+    public UserDetailsService userDetailsService(UserLookupService userLookupService) {
+        return username -> userLookupService.findPasswordHash(username)
+                .map(password -> new org.springframework.security.core.userdetails.User(
+                        username,
+                        password,
                         Collections.emptyList()
                 ))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
@@ -45,22 +50,31 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // Lets DaoAuthenticationProvider rehash on login when the stored BCrypt cost is below the current one
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public UserDetailsPasswordService userDetailsPasswordService(UserRepository userRepository) {
+        return (userDetails, newPassword) -> {
+            userRepository.findByUsername(userDetails.getUsername()).ifPresent(user -> {
+                user.setPassword(newPassword);
+                userRepository.save(user);
+            });
+            return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                    .password(newPassword)
+                    .build();
+        };
     }
 
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
-        return new WebMvcConfigurer() {
-            @Override
-            public void addCorsMappings(CorsRegistry registry) {
-                registry.addMapping("/**")
-                        .allowedOrigins("http://localhost:8081")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowCredentials(true);
-            }
-        };
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${auth.password.min-strength:10}") int minStrength,
+            @Value("${auth.password.max-strength:14}") int maxStrength,
+            @Value("${auth.password.threads:0}") int threads,
+            @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password.retry-after-seconds:2}") int retryAfterSeconds) {
+        int strength = BCryptStrengthCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, retryAfterSeconds);
     }
 
     @Bean
@@ -78,6 +92,10 @@ public class SecurityConfig {
                     "/oauth2/**",
                     "/auth/session", // Allow unauthenticated access to session check
                     "/auth/me", // Allow unauthenticated access to user info
+                    JwksController.PATH,
+                    // Probes and Prometheus scrapes carry no token
+                    "/actuator/health",
+                    "/actuator/prometheus",
                     "/"
                 ).permitAll()
                 // Protected endpoints require authentication
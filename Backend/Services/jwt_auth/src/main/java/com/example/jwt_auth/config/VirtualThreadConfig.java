@@ -0,0 +1,96 @@
+package com.example.jwt_auth.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Opt-in virtual-thread mode: Tomcat request handling, {@code @Async} work
+ * and {@code @Scheduled} tasks run on virtual threads, so a request blocked
+ * on PostgreSQL or on the BCrypt pool no longer holds a platform thread.
+ * Uses the same property as Spring Boot 3.2+, which does this natively;
+ * this service is still on 3.1, and compiles for Java 17, so the JDK 21
+ * thread API is reached reflectively.
+ *
+ * <p>Pinning audit (a virtual thread blocking inside {@code synchronized}
+ * holds its carrier thread):
+ * <ul>
+ * <li>SlidingWindowRateLimiter stripes are {@code synchronized} but never block
+ * inside the monitor; the critical section is a few array reads and writes.</li>
+ * <li>UserLookupService and VerifiedTokenCache both use getIfPresent and put,
+ * never Caffeine's compute, so neither the JDBC lookup nor the JWT parse runs
+ * under a ConcurrentHashMap bin lock.</li>
+ * <li>PostgreSQL JDBC 42.6 guards connections with ReentrantLock, not
+ * {@code synchronized}; HikariCP's borrow path is lock-free.</li>
+ * <li>BCrypt stays on the bounded OffloadingPasswordEncoder pool: it is CPU
+ * bound, and virtual threads would only remove its admission limit.</li>
+ * </ul>
+ * With request threads no longer capped at Tomcat's 200, the Hikari pool is
+ * the effective concurrency limit; waiters queue for up to
+ * {@code spring.datasource.hikari.connection-timeout}.
+ *
+ * <p>The mode stays off until it has been measured against platform threads
+ * on JDK 21: the load tests run both services in either mode
+ * ({@code -threads}, {@code -service-jdk}) and report p99 latency and peak
+ * concurrency for each.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        requireVirtualThreads();
+        return protocolHandler -> protocolHandler.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+    }
+
+    // Replaces Boot's pooled applicationTaskExecutor; a virtual thread per task needs no pool
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public SimpleAsyncTaskExecutor applicationTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+        executor.setThreadFactory(virtualThreadFactory("task-"));
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:1}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadFactory(virtualThreadFactory("scheduling-"));
+        return scheduler;
+    }
+
+    static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    private static void requireVirtualThreads() {
+        if (!isSupported()) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true needs Java 21 or later, running on "
+                    + Runtime.version());
+        }
+    }
+
+    // Thread.ofVirtual().name(prefix, 0).factory()
+    static ThreadFactory virtualThreadFactory(String prefix) {
+        requireVirtualThreads();
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread factory", e);
+        }
+    }
+}
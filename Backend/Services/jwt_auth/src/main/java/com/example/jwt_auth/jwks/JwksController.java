@@ -0,0 +1,44 @@
+package com.example.jwt_auth.jwks;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Publishes the verification keys so other services can check tokens
+ * locally. The document only changes on key rotation, so it is served from
+ * the precomputed snapshot with a long max-age and an ETag for cheap
+ * revalidation.
+ */
+@RestController
+public class JwksController {
+    public static final String PATH = "/.well-known/jwks.json";
+    static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    private final SigningKeyRing keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(SigningKeyRing keyRing, @Value("${jwt.jwks.max-age:1h}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(PATH)
+    public ResponseEntity<byte[]> jwks(WebRequest request) {
+        String etag = keyRing.jwksETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(304).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(JWK_SET)
+                .body(keyRing.jwks());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.jwt_auth.jwks;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * One ES256 (ECDSA P-256) signing key pair and the {@code kid} it is
+ * published under.
+ */
+public record SigningKey(String kid, ECPrivateKey privateKey, ECPublicKey publicKey) {
+
+    public SigningKey {
+        if (kid == null || kid.isBlank()) {
+            throw new IllegalArgumentException("Signing key needs a kid");
+        }
+        if (publicKey.getParams().getCurve().getField().getFieldSize() != 256) {
+            throw new IllegalArgumentException("Signing key " + kid + " is not a P-256 key");
+        }
+    }
+
+    /**
+     * Decodes a key pair from base64 DER: PKCS#8 for the private key, X.509
+     * SubjectPublicKeyInfo for the public key, as written by
+     * {@code openssl pkcs8 -topk8 -nocrypt -outform DER} and
+     * {@code openssl ec -pubout -outform DER}.
+     */
+    public static SigningKey decode(String kid, String privateKey, String publicKey) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            return new SigningKey(kid,
+                    (ECPrivateKey) factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(privateKey))),
+                    (ECPublicKey) factory.generatePublic(new X509EncodedKeySpec(Base64.getMimeDecoder().decode(publicKey))));
+        } catch (GeneralSecurityException | IllegalArgumentException | ClassCastException e) {
+            throw new IllegalArgumentException("Signing key " + kid + " is not a valid EC key pair", e);
+        }
+    }
+
+    public static SigningKey generate(String kid) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            return new SigningKey(kid, (ECPrivateKey) pair.getPrivate(), (ECPublicKey) pair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 key generation not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SigningKey[kid=" + kid + "]";
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.jwt_auth.jwks;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * The ES256 keys this service signs with. All keys in the ring are published
+ * in the JWKS and accepted for verification; new tokens are signed with the
+ * active one. Rotation is a config change pushed by config-server:
+ * <ol>
+ * <li>add the new key under {@code jwt.signing.keys} and wait at least
+ *     {@code jwt.jwks.max-age} so every verifier has fetched it,</li>
+ * <li>point {@code jwt.signing.active-kid} at it,</li>
+ * <li>drop the old key once the last token it signed has expired.</li>
+ * </ol>
+ * The key set and its JWKS document are swapped as one immutable snapshot.
+ */
+@Component
+public class SigningKeyRing {
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyRing.class);
+    private static final String PREFIX = "jwt.signing";
+
+    private final Environment environment;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public SigningKeyRing(Environment environment) {
+        this.environment = environment;
+        reload();
+    }
+
+    public SigningKeyRing(String activeKid, List<SigningKey> keys) {
+        this.environment = null;
+        this.snapshot = Snapshot.of(activeKid, keys);
+    }
+
+    public SigningKey active() {
+        return snapshot.active;
+    }
+
+    /** Returns the key published under {@code kid}, or null. */
+    public SigningKey find(String kid) {
+        return kid != null ? snapshot.keys.get(kid) : null;
+    }
+
+    /** The RFC 7517 JWK Set document for the current keys, public parts only. */
+    public byte[] jwks() {
+        return snapshot.jwks;
+    }
+
+    public String jwksETag() {
+        return snapshot.etag;
+    }
+
+    public void replace(String activeKid, List<SigningKey> keys) {
+        snapshot = Snapshot.of(activeKid, keys);
+        log.info("Signing with {}; published keys {}", activeKid, snapshot.keys.keySet());
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (environment != null && event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + "."))) {
+            reload();
+        }
+    }
+
+    private void reload() {
+        Binder binder = Binder.get(environment);
+        List<KeyProperties> configured = binder.bind(PREFIX + ".keys", Bindable.listOf(KeyProperties.class))
+                .orElse(List.of());
+        if (configured.isEmpty()) {
+            // Tokens signed with a per-process key cannot be verified by other instances after a restart
+            String kid = "ephemeral-" + UUID.randomUUID();
+            log.warn("No {}.keys configured; signing with generated key {}", PREFIX, kid);
+            replace(kid, List.of(SigningKey.generate(kid)));
+            return;
+        }
+        List<SigningKey> keys = configured.stream()
+                .map(key -> SigningKey.decode(key.kid(), key.privateKey(), key.publicKey()))
+                .toList();
+        String activeKid = binder.bind(PREFIX + ".active-kid", String.class).orElse(keys.get(keys.size() - 1).kid());
+        replace(activeKid, keys);
+    }
+
+    public record KeyProperties(String kid, String privateKey, String publicKey) {
+    }
+
+    private record Snapshot(SigningKey active, Map<String, SigningKey> keys, byte[] jwks, String etag) {
+
+        static Snapshot of(String activeKid, List<SigningKey> keys) {
+            Map<String, SigningKey> byKid = new LinkedHashMap<>();
+            for (SigningKey key : keys) {
+                if (byKid.put(key.kid(), key) != null) {
+                    throw new IllegalArgumentException("Duplicate signing key id " + key.kid());
+                }
+            }
+            SigningKey active = byKid.get(activeKid);
+            if (active == null) {
+                throw new IllegalArgumentException("Active signing key " + activeKid + " is not in " + byKid.keySet());
+            }
+            byte[] jwks = jwkSet(byKid.values()).getBytes(StandardCharsets.UTF_8);
+            return new Snapshot(active, Map.copyOf(byKid), jwks, etag(jwks));
+        }
+
+        private static String jwkSet(Iterable<SigningKey> keys) {
+            StringBuilder json = new StringBuilder("{\"keys\":[");
+            for (SigningKey key : keys) {
+                ECPublicKey publicKey = key.publicKey();
+                json.append("{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\",\"kid\":\"")
+                        .append(key.kid().replace("\\", "\\\\").replace("\"", "\\\""))
+                        .append("\",\"x\":\"").append(coordinate(publicKey.getW().getAffineX()))
+                        .append("\",\"y\":\"").append(coordinate(publicKey.getW().getAffineY()))
+                        .append("\"},");
+            }
+            json.setLength(json.length() - 1);
+            return json.append("]}").toString();
+        }
+
+        // RFC 7518 6.2.1.2: unsigned, left-padded to the 32-byte field size
+        private static String coordinate(BigInteger value) {
+            byte[] bytes = value.toByteArray();
+            byte[] fixed = new byte[32];
+            int length = Math.min(bytes.length, 32);
+            System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+        }
+
+        private static String etag(byte[] content) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+                return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
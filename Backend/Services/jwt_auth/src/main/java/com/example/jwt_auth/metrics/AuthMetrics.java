@@ -0,0 +1,101 @@
+package com.example.jwt_auth.metrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.example.jwt_auth.TokenVerification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency histograms for the login and token-verification hot paths.
+ * Every meter is registered once up front and kept in a field or array,
+ * so recording is a {@code nanoTime} delta plus a histogram update with
+ * no tag lookup or allocation per request.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Stage {
+        AUTHENTICATE,
+        // UserRepository.findByUsername: every password check, otherwise on a user-cache miss only
+        FIND_USER,
+        GENERATE_TOKEN,
+        CREATE_REFRESH_TOKEN;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    // Bucket range covers a cached token check (a few µs) up to a saturated BCrypt queue.
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(5_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(5);
+
+    private final Timer[] stages = new Timer[Stage.values().length];
+    private final Timer headerVerification;
+    private final Timer cookieVerification;
+    private final Counter valid;
+    private final Counter[] failures = new Counter[TokenVerification.Failure.values().length];
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stages[stage.ordinal()] = stageTimer(meterRegistry, stage);
+        }
+        this.headerVerification = verificationTimer(meterRegistry, "header");
+        this.cookieVerification = verificationTimer(meterRegistry, "cookie");
+        this.valid = outcomeCounter(meterRegistry, "valid");
+        for (TokenVerification.Failure failure : TokenVerification.Failure.values()) {
+            failures[failure.ordinal()] = outcomeCounter(meterRegistry, failure.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Builds (or looks up) the timer for one login stage. Exposed for
+     * components that are constructed without an {@code AuthMetrics}.
+     */
+    public static Timer stageTimer(MeterRegistry meterRegistry, Stage stage) {
+        return Timer.builder("auth.login.stage")
+                .description("Time spent in one step of /auth/login")
+                .tag("stage", stage.tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    public void recordStage(Stage stage, long startNanos) {
+        stages[stage.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordVerification(boolean fromCookie, TokenVerification verification, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        (fromCookie ? cookieVerification : headerVerification).record(elapsed, TimeUnit.NANOSECONDS);
+        (verification.isValid() ? valid : failures[verification.failure().ordinal()]).increment();
+    }
+
+    /** Counts a request to a protected path that was denied because it carried no Bearer header or jwt cookie. */
+    public void recordMissingToken() {
+        failures[TokenVerification.Failure.MISSING.ordinal()].increment();
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("auth.token.verify")
+                .description("Time spent verifying the request's JWT in JwtFilter, cache hits included")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.token.verifications")
+                .description("JwtFilter verification results by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
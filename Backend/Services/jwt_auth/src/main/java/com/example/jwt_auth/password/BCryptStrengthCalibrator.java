@@ -0,0 +1,38 @@
+package com.example.jwt_auth.password;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the highest BCrypt strength whose hash time on this host stays
+ * within the target latency. Each extra strength step doubles the cost,
+ * so the search stops at the first step that overshoots.
+ */
+public final class BCryptStrengthCalibrator {
+    private static final Logger log = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+    private static final String SAMPLE = "calibration-sample-password";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        // Warm up the JIT so the first measured step is not inflated
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE);
+
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(strength).encode(SAMPLE);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > target.toNanos()) {
+                break;
+            }
+            chosen = strength;
+        }
+        log.info("BCrypt strength calibrated to {} for a target of {} ms", chosen, target.toMillis());
+        return chosen;
+    }
+}
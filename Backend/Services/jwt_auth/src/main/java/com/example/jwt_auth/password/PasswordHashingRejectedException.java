@@ -0,0 +1,18 @@
+package com.example.jwt_auth.password;
+
+/**
+ * Thrown when the password hashing queue is full. Mapped to 503 with a
+ * Retry-After header so clients back off instead of piling up.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public PasswordHashingRejectedException(int retryAfterSeconds) {
+        super("Password hashing capacity exhausted");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
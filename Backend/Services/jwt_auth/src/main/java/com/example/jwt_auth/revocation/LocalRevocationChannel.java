@@ -0,0 +1,29 @@
+package com.example.jwt_auth.revocation;
+
+import java.time.Instant;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.revocation.RevocationChannel;
+import com.example.revocation.TokenRevocationList;
+
+/**
+ * No replication: revocations only reach this instance and are lost on
+ * restart. For a single instance and for tests.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.revocation.channel", havingValue = "local", matchIfMissing = true)
+public class LocalRevocationChannel implements RevocationChannel {
+
+    private final TokenRevocationList revocationList;
+
+    public LocalRevocationChannel(TokenRevocationList revocationList) {
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public void publish(String tokenId, Instant expiresAt) {
+        revocationList.add(tokenId, expiresAt);
+    }
+}
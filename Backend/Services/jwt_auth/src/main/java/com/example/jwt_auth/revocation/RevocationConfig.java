@@ -0,0 +1,41 @@
+package com.example.jwt_auth.revocation;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.revocation.PostgresRevocationChannel;
+import com.example.revocation.RevocationChannel;
+import com.example.revocation.TokenRevocationList;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The revocation list from the token-revocation library, and its channel:
+ * {@link PostgresRevocationChannel} with {@code auth.revocation.channel=postgres},
+ * otherwise {@link LocalRevocationChannel}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RevocationConfig {
+
+    @Bean
+    public TokenRevocationList tokenRevocationList(MeterRegistry meterRegistry,
+                                                   @Value("${auth.revocation.bucket-width:5m}") Duration bucketWidth,
+                                                   @Value("${auth.revocation.max-token-lifetime:1h}") Duration maxTokenLifetime,
+                                                   @Value("${auth.revocation.expected-per-bucket:10000}") int expectedPerBucket) {
+        return new TokenRevocationList(meterRegistry, bucketWidth, maxTokenLifetime, expectedPerBucket);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.revocation.channel", havingValue = "postgres")
+    public RevocationChannel postgresRevocationChannel(TokenRevocationList revocationList,
+                                                       JdbcTemplate jdbcTemplate,
+                                                       DataSourceProperties dataSourceProperties) {
+        return new PostgresRevocationChannel(revocationList, jdbcTemplate, dataSourceProperties);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.jwt_auth.revocation;
+
+import java.time.Instant;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.jwt_auth.TokenVerification;
+import com.example.revocation.RevocationChannel;
+import com.example.revocation.TokenRevocationList;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Revokes access tokens before they expire, e.g. on logout. Checking is done
+ * against {@link TokenRevocationList} directly.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final TokenRevocationList revocationList;
+    private final RevocationChannel channel;
+    private final Counter revoked;
+
+    public TokenRevocationService(TokenRevocationList revocationList, RevocationChannel channel, MeterRegistry meterRegistry) {
+        this.revocationList = revocationList;
+        this.channel = channel;
+        this.revoked = Counter.builder("auth.token.revocations")
+                .description("Access tokens revoked on this instance")
+                .register(meterRegistry);
+    }
+
+    /** Revokes the token on every instance. Returns false for tokens without a jti. */
+    public boolean revoke(TokenVerification.Principal principal) {
+        if (principal.tokenId() == null || principal.expiresAt() == null) {
+            return false;
+        }
+        channel.publish(principal.tokenId(), principal.expiresAt());
+        revoked.increment();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.prune-interval:PT1M}")
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        revocationList.prune(now);
+        channel.prune(now);
+    }
+}
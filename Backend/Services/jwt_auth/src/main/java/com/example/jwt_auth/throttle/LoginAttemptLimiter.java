@@ -0,0 +1,48 @@
+package com.example.jwt_auth.throttle;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-username and per-client-address limits on password checks. Called
+ * before any BCrypt work so that credential-stuffing bursts are turned away
+ * for the cost of a hash and an array probe.
+ */
+@Component
+public class LoginAttemptLimiter {
+    private final boolean enabled;
+    private final SlidingWindowRateLimiter byUsername;
+    private final SlidingWindowRateLimiter byAddress;
+
+    public LoginAttemptLimiter(@Value("${auth.throttle.enabled:true}") boolean enabled,
+                               @Value("${auth.throttle.username.limit:10}") int usernameLimit,
+                               @Value("${auth.throttle.username.window:5m}") Duration usernameWindow,
+                               @Value("${auth.throttle.ip.limit:50}") int addressLimit,
+                               @Value("${auth.throttle.ip.window:1m}") Duration addressWindow,
+                               @Value("${auth.throttle.capacity:65536}") int capacity) {
+        this.enabled = enabled;
+        this.byUsername = new SlidingWindowRateLimiter(usernameLimit, usernameWindow, capacity);
+        this.byAddress = new SlidingWindowRateLimiter(addressLimit, addressWindow, capacity);
+    }
+
+    public void checkAttempt(String username, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        if (clientAddress != null && !byAddress.tryAcquire(clientAddress)) {
+            throw new LoginThrottledException(byAddress.getRetryAfterSeconds());
+        }
+        if (username != null && !byUsername.tryAcquire(username.toLowerCase(Locale.ROOT))) {
+            throw new LoginThrottledException(byUsername.getRetryAfterSeconds());
+        }
+    }
+
+    public void loginSucceeded(String username) {
+        if (enabled && username != null) {
+            byUsername.reset(username.toLowerCase(Locale.ROOT));
+        }
+    }
+}
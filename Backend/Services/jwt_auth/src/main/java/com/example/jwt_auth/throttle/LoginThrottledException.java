@@ -0,0 +1,18 @@
+package com.example.jwt_auth.throttle;
+
+/**
+ * Thrown when a username or client address has used up its login attempts
+ * for the current window. Mapped to 429 with a Retry-After header.
+ */
+public class LoginThrottledException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many login attempts");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.jwt_auth.throttle;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window attempt counter over a fixed-size, lock-striped table of
+ * primitive longs. Each tracked key costs 16 bytes: a 64-bit key hash and a
+ * packed state of {@code [window epoch:32][previous count:16][current count:16]}.
+ * The sliding count is estimated from the current and previous fixed windows,
+ * weighted by how far the current window has progressed.
+ *
+ * <p>Slots whose epoch is older than the previous window are free for reuse,
+ * so stale keys disappear without a sweeper and memory stays bounded at
+ * {@code capacity * 16} bytes regardless of traffic. A live slot is never
+ * overwritten: if every slot in a new key's probe sequence is live, the
+ * attempt is rejected, so flooding the table with other keys cannot reset a
+ * counter that is still blocking someone.
+ */
+public class SlidingWindowRateLimiter {
+    private static final int STRIPES = 64;
+    private static final int MAX_PROBES = 8;
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private final int limit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+    private final int slotMask;
+
+    public SlidingWindowRateLimiter(int limit, Duration window, int capacity) {
+        this(limit, window, capacity, System::currentTimeMillis);
+    }
+
+    SlidingWindowRateLimiter(int limit, Duration window, int capacity, LongSupplier clock) {
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        int perStripe = Integer.highestOneBit(Math.max(MAX_PROBES, capacity / STRIPES - 1) << 1);
+        this.slotMask = perStripe - 1;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Records an attempt for {@code key} and returns {@code true} if it is
+     * within the limit. Rejected attempts are not counted, so a blocked
+     * caller is let through again as soon as the window slides past. Also
+     * returns {@code false} when there is no free slot to track the key in.
+     */
+    public boolean tryAcquire(String key) {
+        long hash = hash(key);
+        long now = clock.getAsLong();
+        int epoch = (int) (now / windowMillis);
+        double elapsed = (now % windowMillis) / (double) windowMillis;
+        Stripe stripe = stripes[(int) (hash >>> 58)];
+        synchronized (stripe) {
+            int slot = stripe.find(hash, epoch, slotMask);
+            if (slot < 0) {
+                return false;
+            }
+            long state = stripe.keys[slot] == hash ? roll(stripe.states[slot], epoch) : pack(epoch, 0, 0);
+            int current = current(state);
+            int previous = previous(state);
+            if (current + previous * (1 - elapsed) >= limit) {
+                stripe.keys[slot] = hash;
+                stripe.states[slot] = state;
+                return false;
+            }
+            stripe.keys[slot] = hash;
+            stripe.states[slot] = pack(epoch, previous, Math.min(MAX_COUNT, current + 1));
+            return true;
+        }
+    }
+
+    /** Forgets all attempts for {@code key}, e.g. after a successful login. */
+    public void reset(String key) {
+        long hash = hash(key);
+        Stripe stripe = stripes[(int) (hash >>> 58)];
+        synchronized (stripe) {
+            int base = (int) hash & slotMask;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (base + probe) & slotMask;
+                if (stripe.keys[slot] == hash) {
+                    stripe.keys[slot] = 0;
+                    stripe.states[slot] = 0;
+                    return;
+                }
+            }
+        }
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, windowMillis / 1000);
+    }
+
+    private static long roll(long state, int epoch) {
+        int stored = epoch(state);
+        if (stored == epoch) {
+            return state;
+        }
+        if (stored == epoch - 1) {
+            return pack(epoch, current(state), 0);
+        }
+        return pack(epoch, 0, 0);
+    }
+
+    private static long pack(int epoch, int previous, int current) {
+        return ((long) epoch << 32) | ((long) previous << 16) | current;
+    }
+
+    private static int epoch(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int previous(long state) {
+        return (int) (state >>> 16) & MAX_COUNT;
+    }
+
+    private static int current(long state) {
+        return (int) state & MAX_COUNT;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes with a murmur3 finalizer; 0 marks an empty slot.
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private static final class Stripe {
+        final long[] keys;
+        final long[] states;
+
+        Stripe(int size) {
+            keys = new long[size];
+            states = new long[size];
+        }
+
+        /** The slot holding {@code hash}, else the first free one, else -1. */
+        int find(long hash, int epoch, int mask) {
+            int base = (int) hash & mask;
+            int free = -1;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (base + probe) & mask;
+                if (keys[slot] == hash) {
+                    return slot;
+                }
+                if (free < 0 && (keys[slot] == 0 || epoch(states[slot]) < epoch - 1)) {
+                    free = slot;
+                }
+            }
+            return free;
+        }
+    }
+}
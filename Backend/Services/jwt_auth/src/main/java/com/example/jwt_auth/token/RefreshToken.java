@@ -7,6 +7,7 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
+@Table(indexes = @Index(name = "refresh_token_expiry_date_idx", columnList = "expiryDate"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,11 +17,12 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 of the token handed to the client; the raw value is never stored
+    @Column(unique = true, length = RefreshTokenHasher.HASH_LENGTH)
+    private byte[] tokenHash;
 
     @OneToOne
-    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    @JoinColumn(name = "user_id", referencedColumnName = "id", unique = true)
     private User user;
 
     @Column(nullable = false)
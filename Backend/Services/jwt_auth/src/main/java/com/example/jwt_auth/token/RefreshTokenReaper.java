@@ -0,0 +1,83 @@
+package com.example.jwt_auth.token;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Periodically deletes expired refresh tokens. Work is split into small
+ * batches, each in its own transaction and separated by a pause, so the
+ * purge never holds locks for long and dead tuples are produced at a rate
+ * autovacuum can keep up with.
+ * <p>
+ * A run holds a scheduler thread for up to {@code max-batches-per-run}
+ * pauses, so the scheduler needs a thread per scheduled task
+ * ({@code spring.task.scheduling.pool.size}) for the others to stay on time.
+ */
+@Component
+public class RefreshTokenReaper {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenReaper.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxBatchesPerRun;
+    private final Counter purged;
+    private final Timer batchTimer;
+
+    public RefreshTokenReaper(RefreshTokenRepository refreshTokenRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${auth.refresh-token.purge.enabled:true}") boolean enabled,
+                              @Value("${auth.refresh-token.purge.batch-size:500}") int batchSize,
+                              @Value("${auth.refresh-token.purge.pause:200ms}") Duration pause,
+                              @Value("${auth.refresh-token.purge.max-batches-per-run:1000}") int maxBatchesPerRun) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.purged = Counter.builder("refresh_tokens.purged")
+                .description("Expired refresh tokens deleted by the reaper")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("refresh_tokens.purge.batch")
+                .description("Time spent deleting one batch of expired refresh tokens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${auth.refresh-token.purge.initial-delay:PT1M}",
+               fixedDelayString = "${auth.refresh-token.purge.interval:PT1H}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = batchTimer.record(() -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+            purged.increment(deleted);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pause.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package com.example.jwt_auth.token;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-
-import com.example.jwt_auth.user.User;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    // One round-trip that replaces the user's token in place; also safe under concurrent logins.
+    // Runs in its own transaction when called after a login, which holds none while hashing
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO refresh_token (user_id, token_hash, expiry_date) VALUES (:userId, :tokenHash, :expiryDate) "
+            + "ON CONFLICT (user_id) DO UPDATE SET token_hash = EXCLUDED.token_hash, expiry_date = EXCLUDED.expiry_date",
+            nativeQuery = true)
+    void upsert(@Param("userId") Long userId, @Param("tokenHash") byte[] tokenHash, @Param("expiryDate") Instant expiryDate);
+
+    // Deletes at most batchSize expired rows in its own short transaction, walking
+    // refresh_token_expiry_date_idx; rows locked by a concurrent purge are skipped
+    @Transactional
     @Modifying
-    @Query("DELETE FROM RefreshToken r WHERE r.user = :user")
-    void deleteByUser(@Param("user") User user);
-}
\ No newline at end of file
+    @Query(value = "DELETE FROM refresh_token WHERE id IN ("
+            + "SELECT id FROM refresh_token WHERE expiry_date < :now "
+            + "ORDER BY expiry_date LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
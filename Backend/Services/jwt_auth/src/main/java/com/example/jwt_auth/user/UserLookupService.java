@@ -0,0 +1,132 @@
+package com.example.jwt_auth.user;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.example.jwt_auth.metrics.AuthMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache in front of {@link UserRepository#findByUsername}.
+ * Lookups are first memoized on the current HTTP request, then served from a
+ * size- and TTL-bounded cache shared by all requests. Only existing users are
+ * cached, and only their id and username, which never change; password
+ * hashes are always read from the database ({@link #findPasswordHash}), so a
+ * changed password takes effect on every instance at once without any
+ * cross-instance eviction. {@link #evict(String)} clears a memoized miss,
+ * e.g. after registering the user.
+ */
+@Service
+public class UserLookupService {
+    private static final String REQUEST_MEMO_ATTRIBUTE = UserLookupService.class.getName() + ".memo";
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<String, UserSnapshot> cache;
+    private final Timer repositoryTimer;
+
+    public UserLookupService(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${auth.user-cache.enabled:true}") boolean enabled,
+                             @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                             @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+        this.repositoryTimer = AuthMetrics.stageTimer(meterRegistry, AuthMetrics.Stage.FIND_USER);
+    }
+
+    public Optional<UserSnapshot> findByUsername(String username) {
+        Map<String, UserSnapshot> memo = requestMemo();
+        if (memo != null && memo.containsKey(username)) {
+            return Optional.ofNullable(memo.get(username));
+        }
+        UserSnapshot user = enabled ? cache.getIfPresent(username) : null;
+        if (user == null) {
+            user = load(username).map(UserSnapshot::of).orElse(null);
+            remember(username, user, memo);
+        } else if (memo != null) {
+            memo.put(username, user);
+        }
+        return Optional.ofNullable(user);
+    }
+
+    /** The current password hash, always read from the database; also refreshes the cached id. */
+    public Optional<String> findPasswordHash(String username) {
+        Optional<User> user = load(username);
+        remember(username, user.map(UserSnapshot::of).orElse(null), requestMemo());
+        return user.map(User::getPassword);
+    }
+
+    private Optional<User> load(String username) {
+        long start = System.nanoTime();
+        try {
+            return userRepository.findByUsername(username);
+        } finally {
+            repositoryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void remember(String username, UserSnapshot user, Map<String, UserSnapshot> memo) {
+        if (user != null && enabled) {
+            cache.put(username, user);
+        }
+        if (memo != null) {
+            memo.put(username, user);
+        }
+    }
+
+    /**
+     * Drops the cached copy now and again once the surrounding transaction
+     * commits, so a concurrent reader cannot re-cache the old row in between.
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+        Map<String, UserSnapshot> memo = requestMemo();
+        if (memo != null) {
+            memo.remove(username);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, UserSnapshot> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object memo = attributes.getAttribute(REQUEST_MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<String, UserSnapshot>();
+            attributes.setAttribute(REQUEST_MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<String, UserSnapshot>) memo;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.jwt_auth.user;
+
+/**
+ * Immutable copy of an {@link User} row's identity that is safe to keep in a
+ * cache and share between requests, unlike the managed entity. The password
+ * hash is deliberately left out, see {@link UserLookupService}.
+ */
+public record UserSnapshot(Long id, String username) {
+
+    static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getUsername());
+    }
+}
@@ -0,0 +1,38 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization).
+-- Every statement must stay idempotent because the script runs on each startup.
+
+-- The tables Hibernate generates for the entities, for launches that turn its
+-- schema update off (ddl-auto=none, see authentication-service-fast-startup.yml).
+-- After an update they already exist and these are no-ops. Keep them in step
+-- with the entities.
+CREATE TABLE IF NOT EXISTS app_user (
+    id BIGSERIAL NOT NULL,
+    password VARCHAR(255),
+    username VARCHAR(255) UNIQUE,
+    PRIMARY KEY (id)
+);
+CREATE TABLE IF NOT EXISTS refresh_token (
+    expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    id BIGSERIAL NOT NULL,
+    user_id BIGINT UNIQUE REFERENCES app_user,
+    token_hash BYTEA UNIQUE,
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS refresh_token_expiry_date_idx ON refresh_token (expiry_date);
+
+-- Refresh tokens used to be stored in plain text in a "token" column. Rows from
+-- that layout have no hash and can never match again, so drop them with the column.
+DELETE FROM refresh_token WHERE token_hash IS NULL;
+ALTER TABLE refresh_token DROP COLUMN IF EXISTS token;
+ALTER TABLE refresh_token ALTER COLUMN token_hash SET NOT NULL;
+
+-- The ON CONFLICT (user_id) upsert in RefreshTokenRepository relies on the unique
+-- constraint on refresh_token.user_id, so no index is added here
+
+-- Access tokens revoked before their expiry (see PostgresRevocationChannel); rows are
+-- deleted once expires_at has passed
+CREATE TABLE IF NOT EXISTS revoked_access_token (
+    jti VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+CREATE INDEX IF NOT EXISTS revoked_access_token_expires_at_idx ON revoked_access_token (expires_at);
@@ -0,0 +1,35 @@
+package com.example.jwt_auth;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.jwt_auth.jwks.SigningKey;
+import com.example.jwt_auth.jwks.SigningKeyRing;
+import com.example.revocation.TokenRevocationList;
+
+/** Keys, tokens and revocation lists shared by the JMH suites in this test tree. */
+public final class BenchmarkFixtures {
+    public static final SigningKey KEY = SigningKey.generate("bench");
+    // Same kid, different key pair: passes the kid lookup and fails the signature check
+    public static final SigningKey OTHER_KEY = SigningKey.generate("bench");
+    public static final String SUBJECT = "bench@example.com";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static JwtUtil jwtUtil(SigningKey key) {
+        return new JwtUtil(new SigningKeyRing(key.kid(), List.of(key)));
+    }
+
+    /** A revocation list holding {@code size} random token ids spread over the next hour. */
+    public static TokenRevocationList revocationList(int size) {
+        TokenRevocationList list = new TokenRevocationList(null, Duration.ofMinutes(5), Duration.ofHours(1), 10_000);
+        Instant now = Instant.now();
+        for (int i = 0; i < size; i++) {
+            list.add(UUID.randomUUID().toString(), now.plusSeconds(60 + i % 3500));
+        }
+        return list;
+    }
+}
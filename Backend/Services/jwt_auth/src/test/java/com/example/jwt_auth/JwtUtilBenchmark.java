@@ -0,0 +1,75 @@
+package com.example.jwt_auth;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Token issue and verification through {@link JwtUtil}, including the two
+ * rejection paths that throw inside jjwt (expired, bad signature). With
+ * {@code -prof gc}, {@code gc.alloc.rate.norm} is the bytes allocated per call.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmarks.args="JwtUtilBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String valid;
+    private String expired;
+    private String badSignature;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(BenchmarkFixtures.KEY);
+        valid = jwtUtil.generateToken(BenchmarkFixtures.SUBJECT);
+        expired = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, BenchmarkFixtures.KEY.kid())
+                .setSubject(BenchmarkFixtures.SUBJECT)
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(BenchmarkFixtures.KEY.privateKey(), SignatureAlgorithm.ES256)
+                .compact();
+        badSignature = BenchmarkFixtures.jwtUtil(BenchmarkFixtures.OTHER_KEY).generateToken(BenchmarkFixtures.SUBJECT);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(BenchmarkFixtures.SUBJECT);
+    }
+
+    @Benchmark
+    public TokenVerification verifyValid() {
+        return jwtUtil.verify(valid);
+    }
+
+    @Benchmark
+    public TokenVerification verifyExpired() {
+        return jwtUtil.verify(expired);
+    }
+
+    @Benchmark
+    public TokenVerification verifyBadSignature() {
+        return jwtUtil.verify(badSignature);
+    }
+}
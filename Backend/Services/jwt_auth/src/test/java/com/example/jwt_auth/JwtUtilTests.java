@@ -0,0 +1,87 @@
+package com.example.jwt_auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.jwt_auth.jwks.SigningKey;
+import com.example.jwt_auth.jwks.SigningKeyRing;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class JwtUtilTests {
+
+	private static final SigningKey K1 = SigningKey.generate("k1");
+	private static final SigningKey K2 = SigningKey.generate("k2");
+
+	private final SigningKeyRing keyRing = new SigningKeyRing("k1", List.of(K1));
+	private final JwtUtil jwtUtil = new JwtUtil(keyRing);
+
+	@Test
+	void verifyReturnsPrincipalForValidToken() {
+		String token = jwtUtil.generateToken("alice@example.com");
+		TokenVerification result = jwtUtil.verify(token);
+		assertTrue(result.isValid());
+		assertEquals("alice@example.com", result.principal().subject());
+		assertNotNull(result.principal().tokenId());
+		assertNotEquals(result.principal().tokenId(), jwtUtil.verify(jwtUtil.generateToken("alice@example.com")).principal().tokenId());
+		assertEquals("k1", Jwts.parserBuilder().setSigningKey(K1.publicKey()).build()
+				.parseClaimsJws(token).getHeader().getKeyId());
+	}
+
+	@Test
+	void verifyReportsFailureReasons() {
+		assertEquals(TokenVerification.Failure.MISSING, jwtUtil.verify(null).failure());
+		assertEquals(TokenVerification.Failure.MALFORMED, jwtUtil.verify("not-a-jwt").failure());
+
+		// Same kid, different key
+		SigningKeyRing impostor = new SigningKeyRing("k1", List.of(SigningKey.generate("k1")));
+		assertEquals(TokenVerification.Failure.BAD_SIGNATURE,
+				jwtUtil.verify(new JwtUtil(impostor).generateToken("alice@example.com")).failure());
+		assertEquals(TokenVerification.Failure.BAD_SIGNATURE,
+				jwtUtil.verify(new JwtUtil(new SigningKeyRing("k2", List.of(K2))).generateToken("alice@example.com")).failure());
+
+		String expired = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "k1")
+				.setSubject("alice@example.com")
+				.setExpiration(new Date(System.currentTimeMillis() - 1000))
+				.signWith(K1.privateKey(), SignatureAlgorithm.ES256)
+				.compact();
+		assertEquals(TokenVerification.Failure.EXPIRED, jwtUtil.verify(expired).failure());
+	}
+
+	@Test
+	void rejectsSharedSecretTokens() {
+		String hmac = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "k1")
+				.setSubject("alice@example.com")
+				.signWith(Keys.hmacShaKeyFor("0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef"
+						.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+				.compact();
+		assertEquals(TokenVerification.Failure.INVALID, jwtUtil.verify(hmac).failure());
+	}
+
+	@Test
+	void rotationKeepsPreviousKeyUntilItIsDropped() {
+		String oldToken = jwtUtil.generateToken("alice@example.com");
+		keyRing.replace("k2", List.of(K1, K2));
+		String newToken = jwtUtil.generateToken("alice@example.com");
+		assertTrue(jwtUtil.verify(oldToken).isValid());
+		assertTrue(jwtUtil.verify(newToken).isValid());
+
+		keyRing.replace("k2", List.of(K2));
+		assertEquals(TokenVerification.Failure.BAD_SIGNATURE, jwtUtil.verify(oldToken).failure());
+		assertTrue(jwtUtil.verify(newToken).isValid());
+	}
+
+}
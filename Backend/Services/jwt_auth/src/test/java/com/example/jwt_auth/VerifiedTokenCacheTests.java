@@ -0,0 +1,92 @@
+package com.example.jwt_auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.jwt_auth.jwks.SigningKey;
+import com.example.jwt_auth.jwks.SigningKeyRing;
+import com.example.revocation.TokenRevocationList;
+
+class VerifiedTokenCacheTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil(new SigningKeyRing("k1", List.of(SigningKey.generate("k1"))));
+	private final MutableClock clock = new MutableClock();
+	private final TokenRevocationList revocationList = new TokenRevocationList(null, Duration.ofMinutes(5), Duration.ofHours(1), 100);
+	private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, revocationList, null, true, 100, clock);
+
+	@Test
+	void repeatedTokenIsServedFromCache() {
+		String token = jwtUtil.generateToken("alice@example.com");
+		assertTrue(cache.verify(token).isValid());
+		assertTrue(cache.verify(token).isValid());
+		assertEquals(1, cache.stats().hitCount());
+		assertEquals(1, cache.stats().missCount());
+	}
+
+	@Test
+	void invalidTokensAreNotCached() {
+		assertFalse(cache.verify("not-a-jwt").isValid());
+		assertFalse(cache.verify("not-a-jwt").isValid());
+		assertEquals(0, cache.stats().hitCount());
+	}
+
+	@Test
+	void cachedTokenIsRejectedOnceRevoked() {
+		String token = jwtUtil.generateToken("alice@example.com");
+		TokenVerification.Principal principal = cache.verify(token).principal();
+		revocationList.add(principal.tokenId(), principal.expiresAt());
+		assertEquals(TokenVerification.Failure.REVOKED, cache.verify(token).failure());
+	}
+
+	@Test
+	void evictSubjectDropsEntries() {
+		String token = jwtUtil.generateToken("alice@example.com");
+		cache.verify(token);
+		cache.evictSubject("alice@example.com");
+		cache.verify(token);
+		assertEquals(0, cache.stats().hitCount());
+	}
+
+	@Test
+	void entryExpiresAtTokenExpiryOnTheCacheClock() {
+		String token = jwtUtil.generateToken("alice@example.com");
+		cache.verify(token);
+		clock.advance(Duration.ofHours(2));
+		cache.verify(token);
+		assertEquals(0, cache.stats().hitCount());
+		assertEquals(2, cache.stats().missCount());
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant now = Instant.now();
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.jwt_auth.auth;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.jwt_auth.user.User;
+import com.example.jwt_auth.user.UserLookupService;
+import com.example.jwt_auth.user.UserRepository;
+
+// BCrypt must be done before a transaction, and with it a pooled connection, is taken
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTests {
+
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	@Spy private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+	@Mock private UserRepository userRepository;
+	@Mock private UserLookupService userLookupService;
+	@Mock private PasswordEncoder passwordEncoder;
+	@InjectMocks private AuthService authService;
+
+	@Test
+	void registerHashesBeforeTheTransaction() {
+		when(userLookupService.findByUsername("alice")).thenReturn(Optional.empty());
+		when(passwordEncoder.encode("secret")).thenReturn("hash");
+		AuthRequest request = new AuthRequest();
+		request.username = "alice";
+		request.password = "secret";
+
+		authService.register(request);
+
+		InOrder order = inOrder(passwordEncoder, transactionManager, userRepository);
+		order.verify(passwordEncoder).encode("secret");
+		order.verify(transactionManager).getTransaction(any());
+		order.verify(userRepository).save(argThat(user -> "hash".equals(user.getPassword())));
+	}
+
+	@Test
+	void changePasswordChecksAndHashesBeforeTheTransaction() {
+		User alice = new User(1L, "alice", "old-hash");
+		when(userLookupService.findPasswordHash("alice")).thenReturn(Optional.of("old-hash"));
+		when(passwordEncoder.matches("old", "old-hash")).thenReturn(true);
+		when(passwordEncoder.encode("new")).thenReturn("new-hash");
+		when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+		authService.changePassword("alice", "old", "new");
+
+		InOrder order = inOrder(passwordEncoder, transactionManager, userRepository);
+		order.verify(passwordEncoder).matches("old", "old-hash");
+		order.verify(passwordEncoder).encode("new");
+		order.verify(transactionManager).getTransaction(any());
+		order.verify(userRepository).save(argThat(user -> "new-hash".equals(user.getPassword())));
+	}
+
+	@Test
+	void changePasswordFailsIfThePasswordChangedWhileHashing() {
+		when(userLookupService.findPasswordHash("alice")).thenReturn(Optional.of("old-hash"));
+		when(passwordEncoder.matches("old", "old-hash")).thenReturn(true);
+		when(passwordEncoder.encode("new")).thenReturn("new-hash");
+		when(userRepository.findByUsername("alice")).thenReturn(Optional.of(new User(1L, "alice", "other-hash")));
+
+		assertThrows(RuntimeException.class, () -> authService.changePassword("alice", "old", "new"));
+		verify(userRepository, never()).save(any());
+	}
+
+}
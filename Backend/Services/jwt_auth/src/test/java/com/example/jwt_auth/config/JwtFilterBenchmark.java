@@ -0,0 +1,97 @@
+package com.example.jwt_auth.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.gatewayidentity.GatewayIdentity;
+import com.example.gatewayidentity.GatewayIdentitySigner;
+import com.example.jwt_auth.BenchmarkFixtures;
+import com.example.jwt_auth.JwtUtil;
+import com.example.jwt_auth.VerifiedTokenCache;
+import com.example.jwt_auth.metrics.AuthMetrics;
+import com.example.revocation.TokenRevocationList;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+
+/**
+ * One pass of {@link JwtFilter} per request: token extraction from the
+ * Authorization header, the jwt cookie, or neither; verification with and
+ * without the verified-token cache, or of the gateway's signed identity
+ * instead; the revocation check against 10k other revoked tokens; metrics
+ * recording. Tracing is off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"header", "cookie", "gateway", "none"})
+    public String source;
+
+    @Param({"true", "false"})
+    public boolean tokenCache;
+
+    private JwtFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil(BenchmarkFixtures.KEY);
+        TokenRevocationList revocationList = BenchmarkFixtures.revocationList(10_000);
+        // Long enough for the signed headers built once below to outlast the run
+        GatewayIdentitySigner signer =
+                new GatewayIdentitySigner(Base64.getEncoder().encodeToString(new byte[32]), Duration.ofDays(1));
+        filter = new JwtFilter(
+                new VerifiedTokenCache(jwtUtil, revocationList, null, tokenCache, 10_000),
+                signer,
+                revocationList,
+                new AuthMetrics(new SimpleMeterRegistry()),
+                new StaticListableBeanFactory().getBeanProvider(Tracer.class));
+
+        String token = jwtUtil.generateToken(BenchmarkFixtures.SUBJECT);
+        request = new MockHttpServletRequest("GET", "/auth/session");
+        switch (source) {
+            case "header" -> request.addHeader("Authorization", "Bearer " + token);
+            case "cookie" -> request.setCookies(new Cookie("jwt", token));
+            case "gateway" -> {
+                request.addHeader("Authorization", "Bearer " + token);
+                signer.sign(new GatewayIdentity(BenchmarkFixtures.SUBJECT, "bench-jti", Instant.now().plus(Duration.ofDays(1))))
+                        .forEach(request::addHeader);
+            }
+            default -> { }
+        }
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void doFilter() throws Exception {
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+}
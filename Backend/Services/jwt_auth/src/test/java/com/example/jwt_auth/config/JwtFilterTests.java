@@ -0,0 +1,119 @@
+package com.example.jwt_auth.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.event.AuthorizationDeniedEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.gatewayidentity.GatewayIdentity;
+import com.example.gatewayidentity.GatewayIdentitySigner;
+import com.example.jwt_auth.TokenVerification;
+import com.example.jwt_auth.VerifiedTokenCache;
+import com.example.jwt_auth.metrics.AuthMetrics;
+import com.example.revocation.TokenRevocationList;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+
+class JwtFilterTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final VerifiedTokenCache tokenCache = mock(VerifiedTokenCache.class);
+	private final GatewayIdentitySigner signer =
+			new GatewayIdentitySigner(Base64.getEncoder().encodeToString(new byte[32]), Duration.ofSeconds(30));
+	private final TokenRevocationList revocationList = new TokenRevocationList(null, Duration.ofMinutes(5), Duration.ofHours(1), 100);
+	private final JwtFilter filter = new JwtFilter(tokenCache, signer, revocationList, new AuthMetrics(registry),
+			new StaticListableBeanFactory().getBeanProvider(Tracer.class));
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void missingTokenOnAPublicPathIsNotCounted() throws Exception {
+		filter.doFilter(new MockHttpServletRequest("POST", "/auth/login"), new MockHttpServletResponse(), new MockFilterChain());
+		assertEquals(0, missing());
+	}
+
+	@Test
+	void missingTokenIsCountedWhenAuthorizationDeniesTheRequest() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/logout");
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		filter.onAuthorizationDenied(denied(request));
+		assertEquals(1, missing());
+	}
+
+	@Test
+	void deniedRequestWithATokenIsNotCountedAsMissing() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/logout");
+		request.addHeader("Authorization", "Bearer not-a-jwt");
+		when(tokenCache.verify("not-a-jwt")).thenReturn(TokenVerification.failed(TokenVerification.Failure.MALFORMED));
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		filter.onAuthorizationDenied(denied(request));
+		assertEquals(0, missing());
+	}
+
+	@Test
+	void gatewaySignedIdentityIsTrustedWithoutParsingTheToken() throws Exception {
+		Instant expiresAt = Instant.now().plusSeconds(60);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+		request.addHeader("Authorization", "Bearer token");
+		signer.sign(new GatewayIdentity("alice@example.com", "jti-1", expiresAt)).forEach(request::addHeader);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		assertEquals("alice@example.com", auth.getName());
+		assertEquals("jti-1", ((TokenVerification.Principal) auth.getDetails()).tokenId());
+		verify(tokenCache, never()).verify(any());
+	}
+
+	@Test
+	void forgedOrRevokedIdentityIsRejected() throws Exception {
+		Instant expiresAt = Instant.now().plusSeconds(60);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+		request.addHeader("Authorization", "Bearer token");
+		signer.sign(new GatewayIdentity("alice@example.com", "jti-1", expiresAt)).forEach(request::addHeader);
+		request.removeHeader(GatewayIdentitySigner.SUBJECT_HEADER);
+		request.addHeader(GatewayIdentitySigner.SUBJECT_HEADER, "mallory%40example.com");
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+		revocationList.add("jti-1", expiresAt);
+		request = new MockHttpServletRequest("GET", "/auth/me");
+		request.addHeader("Authorization", "Bearer token");
+		signer.sign(new GatewayIdentity("alice@example.com", "jti-1", expiresAt)).forEach(request::addHeader);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		verify(tokenCache, never()).verify(any());
+	}
+
+	private static AuthorizationDeniedEvent<MockHttpServletRequest> denied(MockHttpServletRequest request) {
+		return new AuthorizationDeniedEvent<>(() -> new AnonymousAuthenticationToken("key", "anonymousUser",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")), request, new AuthorizationDecision(false));
+	}
+
+	private double missing() {
+		return registry.get("auth.token.verifications").tag("outcome", "missing").counter().count();
+	}
+}
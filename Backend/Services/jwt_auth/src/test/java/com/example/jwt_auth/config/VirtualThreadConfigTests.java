@@ -0,0 +1,42 @@
+package com.example.jwt_auth.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+class VirtualThreadConfigTests {
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+			.withUserConfiguration(VirtualThreadConfig.class);
+
+	@Test
+	void offByDefault() {
+		runner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadConfig.class));
+	}
+
+	@Test
+	void enabledRunsTasksOnVirtualThreadsOrRefusesOldJdks() {
+		runner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+			if (!VirtualThreadConfig.isSupported()) {
+				assertThat(context).hasFailed();
+				assertThat(context.getStartupFailure()).rootCause().hasMessageContaining("Java 21");
+				return;
+			}
+			SimpleAsyncTaskExecutor executor = context.getBean("applicationTaskExecutor", SimpleAsyncTaskExecutor.class);
+			CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+			executor.execute(() -> {
+				try {
+					virtual.complete((Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+				} catch (ReflectiveOperationException e) {
+					virtual.completeExceptionally(e);
+				}
+			});
+			assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+		});
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.jwt_auth.jwks;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class JwksControllerTests {
+
+	private final SigningKeyRing keyRing = new SigningKeyRing("k2",
+			List.of(SigningKey.generate("k1"), SigningKey.generate("k2")));
+	private final MockMvc mvc = MockMvcBuilders
+			.standaloneSetup(new JwksController(keyRing, Duration.ofHours(1)))
+			.build();
+
+	@Test
+	void publishesEveryVerificationKey() throws Exception {
+		mvc.perform(get(JwksController.PATH))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/jwk-set+json"))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+				.andExpect(header().string(HttpHeaders.ETAG, keyRing.jwksETag()))
+				.andExpect(jsonPath("$.keys", hasSize(2)))
+				.andExpect(jsonPath("$.keys[1].kid").value("k2"))
+				.andExpect(jsonPath("$.keys[1].alg").value("ES256"))
+				.andExpect(jsonPath("$.keys[1].crv").value("P-256"));
+	}
+
+	@Test
+	void revalidatesUntilTheKeysRotate() throws Exception {
+		String etag = keyRing.jwksETag();
+		mvc.perform(get(JwksController.PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		keyRing.replace("k3", List.of(SigningKey.generate("k3")));
+		mvc.perform(get(JwksController.PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.keys", hasSize(1)))
+				.andExpect(jsonPath("$.keys[0].kid").value("k3"));
+	}
+
+}
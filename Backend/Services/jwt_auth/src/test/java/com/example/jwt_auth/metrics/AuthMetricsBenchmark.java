@@ -0,0 +1,92 @@
+package com.example.jwt_auth.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.jwt_auth.TokenVerification;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exemplars.DefaultExemplarSampler;
+import io.prometheus.client.exemplars.tracer.common.SpanContextSupplier;
+
+/**
+ * Per-request cost of the JwtFilter instrumentation: one verification timer
+ * sample plus one outcome counter, recorded into a Prometheus registry with
+ * the exemplar sampler enabled. The budget is well under 1 µs per request.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmarks.args="AuthMetricsBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthMetricsBenchmark {
+
+    private static final TokenVerification EXPIRED = TokenVerification.failed(TokenVerification.Failure.EXPIRED);
+
+    private AuthMetrics metrics;
+    private TokenVerification valid;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT,
+                new CollectorRegistry(), Clock.SYSTEM, new DefaultExemplarSampler(new UnsampledSpanContext()));
+        metrics = new AuthMetrics(registry);
+        valid = TokenVerification.valid(new TokenVerification.Principal("bench@example.com", null, null));
+    }
+
+    @Benchmark
+    public long nanoTimeOnly() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void recordValid() {
+        metrics.recordVerification(false, valid, System.nanoTime());
+    }
+
+    @Benchmark
+    public void recordExpired() {
+        metrics.recordVerification(true, EXPIRED, System.nanoTime());
+    }
+
+    @Benchmark
+    public void recordMissing() {
+        metrics.recordMissingToken();
+    }
+
+    // As outside a sampled trace: the sampler asks, gets no span, records no exemplar
+    private static final class UnsampledSpanContext implements SpanContextSupplier {
+        @Override
+        public String getTraceId() {
+            return null;
+        }
+
+        @Override
+        public String getSpanId() {
+            return null;
+        }
+
+        @Override
+        public boolean isSampled() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.jwt_auth.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.jwt_auth.TokenVerification;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exemplars.DefaultExemplarSampler;
+import io.prometheus.client.exemplars.tracer.common.SpanContextSupplier;
+import io.prometheus.client.exporter.common.TextFormat;
+
+class AuthMetricsTests {
+
+	private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+	private static final String SPAN_ID = "00f067aa0ba902b7";
+
+	@Test
+	void countsVerificationsByOutcome() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AuthMetrics metrics = new AuthMetrics(registry);
+
+		metrics.recordVerification(false, TokenVerification.failed(TokenVerification.Failure.EXPIRED), System.nanoTime());
+		metrics.recordVerification(true, TokenVerification.failed(TokenVerification.Failure.BAD_SIGNATURE), System.nanoTime());
+		metrics.recordMissingToken();
+		metrics.recordMissingToken();
+
+		assertEquals(1, registry.get("auth.token.verifications").tag("outcome", "expired").counter().count());
+		assertEquals(1, registry.get("auth.token.verifications").tag("outcome", "bad_signature").counter().count());
+		assertEquals(2, registry.get("auth.token.verifications").tag("outcome", "missing").counter().count());
+		assertEquals(1, registry.get("auth.token.verify").tag("source", "cookie").timer().count());
+		assertEquals(1, registry.get("auth.token.verify").tag("source", "header").timer().count());
+	}
+
+	@Test
+	void scrapeCarriesSpanExemplars() {
+		PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT,
+				new CollectorRegistry(), Clock.SYSTEM, new DefaultExemplarSampler(new FixedSpanContext()));
+		AuthMetrics metrics = new AuthMetrics(registry);
+
+		metrics.recordStage(AuthMetrics.Stage.AUTHENTICATE, System.nanoTime() - 200_000_000L);
+
+		String scrape = registry.scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+		assertTrue(scrape.contains("auth_login_stage_seconds_bucket{stage=\"authenticate\",le="), scrape);
+		assertTrue(scrape.contains("trace_id=\"" + TRACE_ID + "\""), scrape);
+		assertTrue(scrape.contains("span_id=\"" + SPAN_ID + "\""), scrape);
+	}
+
+	private static final class FixedSpanContext implements SpanContextSupplier {
+		@Override
+		public String getTraceId() {
+			return TRACE_ID;
+		}
+
+		@Override
+		public String getSpanId() {
+			return SPAN_ID;
+		}
+
+		@Override
+		public boolean isSampled() {
+			return true;
+		}
+	}
+}
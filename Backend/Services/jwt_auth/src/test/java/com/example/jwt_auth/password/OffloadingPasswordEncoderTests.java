@@ -0,0 +1,66 @@
+package com.example.jwt_auth.password;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class OffloadingPasswordEncoderTests {
+
+	@Test
+	void hashesOnThePool() {
+		OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 2);
+		String hash = encoder.encode("secret");
+		assertTrue(encoder.matches("secret", hash));
+		encoder.destroy();
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.encode(rawPassword);
+			}
+		};
+		OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(blocking, 1, 1, 7);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		callers.submit(() -> encoder.encode("running"));
+		started.await(5, TimeUnit.SECONDS);
+		callers.submit(() -> encoder.encode("queued"));
+		Thread.sleep(100); // let the second call land in the queue
+
+		PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+				() -> encoder.encode("rejected"));
+		assertEquals(7, e.getRetryAfterSeconds());
+
+		release.countDown();
+		callers.shutdown();
+		callers.awaitTermination(5, TimeUnit.SECONDS);
+		encoder.destroy();
+	}
+
+	@Test
+	void calibrationStaysWithinBounds() {
+		int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(1), 4, 6);
+		assertTrue(strength >= 4 && strength <= 6);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.example.jwt_auth.revocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.jwt_auth.BenchmarkFixtures;
+import com.example.revocation.TokenRevocationList;
+
+/**
+ * Per-request cost of the access-token revocation check in JwtFilter, for a
+ * token that is not revoked (the Bloom filter answers) and one that is (the
+ * exact set confirms).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevocationCheckBenchmark {
+
+    @Param({"1000", "100000"})
+    public int entries;
+
+    private TokenRevocationList list;
+    private String liveId;
+    private String revokedId;
+    private Instant expiresAt;
+
+    @Setup
+    public void setUp() {
+        list = BenchmarkFixtures.revocationList(entries);
+        liveId = UUID.randomUUID().toString();
+        revokedId = UUID.randomUUID().toString();
+        expiresAt = Instant.now().plus(Duration.ofMinutes(30));
+        list.add(revokedId, expiresAt);
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return list.isRevoked(liveId, expiresAt);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return list.isRevoked(revokedId, expiresAt);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.jwt_auth.throttle;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link SlidingWindowRateLimiter#tryAcquire(String)} from
+ * several threads over a pool of 100k distinct keys.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmarks.args=SlidingWindowRateLimiterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SlidingWindowRateLimiterBenchmark {
+
+    private SlidingWindowRateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        limiter = new SlidingWindowRateLimiter(Integer.MAX_VALUE, Duration.ofMinutes(1), 1 << 17);
+        keys = new String[100_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "user-" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.jwt_auth.throttle;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowRateLimiterTests {
+
+	private final AtomicLong now = new AtomicLong(6_000_000); // aligned to a window start
+	private final SlidingWindowRateLimiter limiter =
+			new SlidingWindowRateLimiter(3, Duration.ofSeconds(60), 1024, now::get);
+
+	@Test
+	void rejectsOnceLimitIsReached() {
+		assertTrue(limiter.tryAcquire("alice"));
+		assertTrue(limiter.tryAcquire("alice"));
+		assertTrue(limiter.tryAcquire("alice"));
+		assertFalse(limiter.tryAcquire("alice"));
+		assertTrue(limiter.tryAcquire("bob"));
+	}
+
+	@Test
+	void previousWindowDecaysAsWindowSlides() {
+		for (int i = 0; i < 3; i++) {
+			limiter.tryAcquire("alice");
+		}
+		now.addAndGet(60_000); // start of the next window: previous still counts fully
+		assertFalse(limiter.tryAcquire("alice"));
+		now.addAndGet(40_000); // two thirds through: previous weighs 1/3
+		assertTrue(limiter.tryAcquire("alice"));
+		now.addAndGet(120_000); // previous window is gone
+		assertTrue(limiter.tryAcquire("alice"));
+	}
+
+	@Test
+	void resetForgetsKey() {
+		for (int i = 0; i < 3; i++) {
+			limiter.tryAcquire("alice");
+		}
+		limiter.reset("alice");
+		assertTrue(limiter.tryAcquire("alice"));
+	}
+
+	@Test
+	void keyFloodDoesNotEvictLiveCounter() {
+		for (int i = 0; i < 3; i++) {
+			limiter.tryAcquire("alice");
+		}
+		for (int i = 0; i < 100_000; i++) {
+			limiter.tryAcquire("user-" + i);
+		}
+		assertFalse(limiter.tryAcquire("alice"));
+	}
+
+	@Test
+	void floodedSlotsAreReusedOnceTheirWindowHasPassed() {
+		for (int i = 0; i < 100_000; i++) {
+			limiter.tryAcquire("user-" + i);
+		}
+		now.addAndGet(120_000);
+		assertTrue(limiter.tryAcquire("alice"));
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.example.jwt_auth.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshTokenReaperTests {
+
+	private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void stopsAfterTheFirstShortBatch() {
+		when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(500))).thenReturn(500, 500, 120);
+		reaper(true, 10).purgeExpired();
+		verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(Instant.class), eq(500));
+		assertEquals(1120, meterRegistry.counter("refresh_tokens.purged").count());
+	}
+
+	@Test
+	void stopsAtMaxBatchesPerRun() {
+		when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(500))).thenReturn(500);
+		reaper(true, 4).purgeExpired();
+		verify(refreshTokenRepository, times(4)).deleteExpiredBatch(any(Instant.class), eq(500));
+	}
+
+	@Test
+	void disabledDeletesNothing() {
+		reaper(false, 10).purgeExpired();
+		verify(refreshTokenRepository, never()).deleteExpiredBatch(any(Instant.class), eq(500));
+	}
+
+	private RefreshTokenReaper reaper(boolean enabled, int maxBatchesPerRun) {
+		return new RefreshTokenReaper(refreshTokenRepository, meterRegistry, enabled, 500, Duration.ZERO, maxBatchesPerRun);
+	}
+}
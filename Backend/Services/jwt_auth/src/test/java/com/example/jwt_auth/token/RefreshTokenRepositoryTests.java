@@ -0,0 +1,100 @@
+package com.example.jwt_auth.token;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.jwt_auth.user.User;
+import com.example.jwt_auth.user.UserRepository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+
+// Real PostgreSQL: the upsert and the purge use SQL H2 does not support
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=update",
+		"spring.jpa.defer-datasource-initialization=true",
+		"spring.sql.init.mode=always"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RefreshTokenRepositoryTests {
+
+	private static EmbeddedPostgres postgres;
+
+	@Autowired private RefreshTokenRepository refreshTokenRepository;
+	@Autowired private UserRepository userRepository;
+	@Autowired private EntityManager entityManager;
+	@Autowired private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) throws IOException {
+		postgres = EmbeddedPostgres.builder().start();
+		registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "postgres");
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		postgres.close();
+	}
+
+	@Test
+	void upsertReplacesTheUsersTokenInPlace() {
+		Long userId = user("alice@example.com");
+		Instant expiry = Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MICROS);
+		refreshTokenRepository.upsert(userId, RefreshTokenHasher.hash("first"), expiry);
+		refreshTokenRepository.upsert(userId, RefreshTokenHasher.hash("second"), expiry.plusSeconds(60));
+		entityManager.clear();
+
+		assertEquals(1, refreshTokenRepository.count());
+		assertTrue(refreshTokenRepository.findByTokenHash(RefreshTokenHasher.hash("first")).isEmpty());
+		RefreshToken token = refreshTokenRepository.findByTokenHash(RefreshTokenHasher.hash("second")).orElseThrow();
+		assertArrayEquals(RefreshTokenHasher.hash("second"), token.getTokenHash());
+		assertEquals(expiry.plusSeconds(60), token.getExpiryDate());
+		assertEquals(userId, token.getUser().getId());
+	}
+
+	@Test
+	void userIdHasOneUniqueIndex() {
+		Integer indexes = jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM pg_indexes WHERE tablename = 'refresh_token' AND indexdef LIKE 'CREATE UNIQUE INDEX % (user_id)'",
+				Integer.class);
+		assertEquals(1, indexes);
+	}
+
+	@Test
+	void deleteExpiredBatchDeletesAtMostBatchSizeExpiredRows() {
+		Instant now = Instant.now();
+		for (int i = 0; i < 3; i++) {
+			refreshTokenRepository.upsert(user("expired" + i + "@example.com"), RefreshTokenHasher.hash("expired" + i),
+					now.minusSeconds(60 + i));
+		}
+		refreshTokenRepository.upsert(user("live@example.com"), RefreshTokenHasher.hash("live"), now.plusSeconds(60));
+
+		assertEquals(2, refreshTokenRepository.deleteExpiredBatch(now, 2));
+		assertEquals(1, refreshTokenRepository.deleteExpiredBatch(now, 2));
+		assertEquals(0, refreshTokenRepository.deleteExpiredBatch(now, 2));
+		assertEquals(1, refreshTokenRepository.count());
+	}
+
+	private Long user(String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setPassword("{noop}secret");
+		return userRepository.saveAndFlush(user).getId();
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.jwt_auth.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserLookupServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UserLookupService lookup =
+			new UserLookupService(userRepository, new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(5));
+
+	@Test
+	void repeatedLookupsHitTheDatabaseOnce() {
+		when(userRepository.findByUsername("alice")).thenReturn(Optional.of(new User(1L, "alice", "hash")));
+		assertEquals(1L, lookup.findByUsername("alice").orElseThrow().id());
+		assertEquals(1L, lookup.findByUsername("alice").orElseThrow().id());
+		verify(userRepository, times(1)).findByUsername("alice");
+	}
+
+	@Test
+	void passwordHashIsAlwaysReadFromTheDatabase() {
+		when(userRepository.findByUsername("alice"))
+				.thenReturn(Optional.of(new User(1L, "alice", "old")))
+				.thenReturn(Optional.of(new User(1L, "alice", "new")));
+		assertEquals("old", lookup.findPasswordHash("alice").orElseThrow());
+		// e.g. changed through another instance
+		assertEquals("new", lookup.findPasswordHash("alice").orElseThrow());
+		// The password checks also filled the id cache
+		assertEquals(1L, lookup.findByUsername("alice").orElseThrow().id());
+		verify(userRepository, times(2)).findByUsername("alice");
+	}
+
+	@Test
+	void missingUsersAreNotCached() {
+		when(userRepository.findByUsername("bob"))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(new User(2L, "bob", "hash")));
+		assertTrue(lookup.findByUsername("bob").isEmpty());
+		assertTrue(lookup.findByUsername("bob").isPresent());
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.example.loadtests;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a load test result with a stored baseline, endpoint by endpoint.
+ * <ul>
+ * <li>p50, p99 and p999 regress when they rise by more than the threshold
+ *     (default 20%) and by more than {@value #MIN_LATENCY_DELTA_MILLIS} ms. A
+ *     percentile is only compared when both runs have enough requests to
+ *     measure it: 100 for p99, 1000 for p999;</li>
+ * <li>throughput regresses when it drops by more than the threshold; under an
+ *     open model it only drops when journeys fail or are dropped;</li>
+ * <li>the error rate regresses when it rises by more than
+ *     {@value #MAX_ERROR_RATE_INCREASE} (absolute).</li>
+ * </ul>
+ * Exits with status 1 on any regression. The peak concurrency of both runs is
+ * printed alongside but not judged; with results of the same workload on
+ * platform and virtual threads this is the comparison of the two modes.
+ *
+ * <pre>
+ * java -cp load-tests.jar com.example.loadtests.CompareBaseline load-baseline.json load-result.json [0.2]
+ * java -cp load-tests.jar com.example.loadtests.CompareBaseline platform.json virtual.json
+ * </pre>
+ */
+public final class CompareBaseline {
+    static final double MIN_LATENCY_DELTA_MILLIS = 2.0;
+    static final double MAX_ERROR_RATE_INCREASE = 0.005;
+
+    private static final Map<String, Integer> MIN_REQUESTS = Map.of("p50", 1, "p99", 100, "p999", 1000);
+
+    /** {@code change} is signed so that a positive value is always worse; absolute for errorRate. */
+    public record Comparison(String endpoint, String metric, double baseline, double current,
+                             double change, boolean regressed) {
+    }
+
+    private CompareBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("usage: CompareBaseline <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : 0.20;
+        System.exit(report(mapper.readTree(new File(args[0])), mapper.readTree(new File(args[1])), threshold) ? 1 : 0);
+    }
+
+    /** Prints the comparison and returns whether anything regressed. */
+    static boolean report(JsonNode baseline, JsonNode current, double threshold) {
+        if (!sameWorkload(baseline, current)) {
+            System.out.println("WARNING: workloads differ, baseline " + baseline.path("workload")
+                    + " current " + current.path("workload"));
+        }
+        if (baseline.has("concurrency") && current.has("concurrency")) {
+            System.out.println("Peak concurrency, baseline then current:");
+            LoadReport.printConcurrency(baseline, System.out);
+            LoadReport.printConcurrency(current, System.out);
+        }
+        List<Comparison> comparisons = compare(baseline, current, threshold);
+        int regressions = 0;
+        for (Comparison c : comparisons) {
+            System.out.printf("%-48s %-10s %12.3f %12.3f %+9.1f%%%s%n", c.endpoint(), c.metric(), c.baseline(),
+                    c.current(), c.change() * 100, c.regressed() ? "  REGRESSED" : "");
+            if (c.regressed()) {
+                regressions++;
+            }
+        }
+        System.out.printf("%d metrics compared, %d regressed (threshold %.0f%%)%n",
+                comparisons.size(), regressions, threshold * 100);
+        return regressions > 0;
+    }
+
+    static boolean sameWorkload(JsonNode baseline, JsonNode current) {
+        return baseline.path("workload").equals(CompareBaseline::compareValues, current.path("workload"));
+    }
+
+    // A result read back from its file holds 1 as an int where the run that wrote it had a long
+    private static int compareValues(JsonNode a, JsonNode b) {
+        if (a.isNumber() && b.isNumber()) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        return a.equals(b) ? 0 : 1;
+    }
+
+    /** Compares the endpoints present in both results. */
+    public static List<Comparison> compare(JsonNode baseline, JsonNode current, double threshold) {
+        List<Comparison> comparisons = new ArrayList<>();
+        JsonNode before = baseline.path("endpoints");
+        for (Iterator<Map.Entry<String, JsonNode>> it = current.path("endpoints").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            JsonNode old = before.get(entry.getKey());
+            if (old == null) {
+                continue;
+            }
+            JsonNode now = entry.getValue();
+            for (String metric : List.of("p50", "p99", "p999")) {
+                int minRequests = MIN_REQUESTS.get(metric);
+                if (old.get("requests").asLong() < minRequests || now.get("requests").asLong() < minRequests) {
+                    continue;
+                }
+                double oldValue = old.get(metric).asDouble();
+                double newValue = now.get(metric).asDouble();
+                double change = oldValue == 0 ? 0 : (newValue - oldValue) / oldValue;
+                comparisons.add(new Comparison(entry.getKey(), metric, oldValue, newValue, change,
+                        change > threshold && newValue - oldValue > MIN_LATENCY_DELTA_MILLIS));
+            }
+            double oldThroughput = old.get("throughput").asDouble();
+            double newThroughput = now.get("throughput").asDouble();
+            double throughputChange = oldThroughput == 0 ? 0 : (oldThroughput - newThroughput) / oldThroughput;
+            comparisons.add(new Comparison(entry.getKey(), "throughput", oldThroughput, newThroughput,
+                    throughputChange, throughputChange > threshold));
+            double oldErrors = old.get("errorRate").asDouble();
+            double newErrors = now.get("errorRate").asDouble();
+            comparisons.add(new Comparison(entry.getKey(), "errorRate", oldErrors, newErrors,
+                    newErrors - oldErrors, newErrors - oldErrors > MAX_ERROR_RATE_INCREASE));
+        }
+        return comparisons;
+    }
+}
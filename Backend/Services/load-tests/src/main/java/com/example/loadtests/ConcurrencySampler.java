@@ -0,0 +1,132 @@
+package com.example.loadtests;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads how much work each service has in hand from its actuator every
+ * {@value #INTERVAL_MILLIS} ms during the run, and keeps the peaks in
+ * {@link LoadStats}:
+ * <ul>
+ * <li>{@code requestsActive}: requests being handled
+ *     ({@code http.server.requests.active}). With platform threads a request
+ *     only counts once one of Tomcat's threads has taken it, so the gap to
+ *     {@code requestsInFlight} is the backlog waiting for a thread; with
+ *     virtual threads every accepted request counts;</li>
+ * <li>{@code connectionsActive} and {@code connectionsPending}: Hikari
+ *     connections in use, and requests waiting for one.</li>
+ * </ul>
+ * jwt_auth is read from {@code /actuator/prometheus}, the metrics endpoint it
+ * serves without a token, and parent from {@code /actuator/metrics}. A read
+ * that fails is skipped.
+ */
+final class ConcurrencySampler implements AutoCloseable {
+    static final long INTERVAL_MILLIS = 100;
+
+    private static final Map<String, String> PROMETHEUS = Map.of(
+            "http_server_requests_active_seconds_active_count", "requestsActive",
+            "hikaricp_connections_active", "connectionsActive",
+            "hikaricp_connections_pending", "connectionsPending");
+    private static final Map<String, String[]> METRICS = Map.of(
+            "requestsActive", new String[] {"http.server.requests.active", "ACTIVE_TASKS"},
+            "connectionsActive", new String[] {"hikaricp.connections.active", "VALUE"},
+            "connectionsPending", new String[] {"hikaricp.connections.pending", "VALUE"});
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(2);
+
+    private final HttpClient http;
+    private final LoadStats stats;
+    private final URI auth;
+    private final URI parent;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Thread thread;
+
+    ConcurrencySampler(HttpClient http, LoadStats stats, URI auth, URI parent) {
+        this.http = http;
+        this.stats = stats;
+        this.auth = auth;
+        this.parent = parent;
+        this.thread = new Thread(this::run, "concurrency-sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                sampleAuth();
+                sampleParent();
+                Thread.sleep(INTERVAL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    private void sampleAuth() throws InterruptedException {
+        String body;
+        try {
+            body = get(auth.resolve("/actuator/prometheus"));
+        } catch (IOException e) {
+            return;
+        }
+        // Summed over tags: every URI for requests, the one pool for connections
+        Map<String, Double> values = new HashMap<>();
+        for (String line : body.split("\n")) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int nameEnd = line.indexOf('{');
+            String gauge = PROMETHEUS.get(line.substring(0, nameEnd >= 0 ? nameEnd : line.indexOf(' ')));
+            if (gauge != null) {
+                values.merge(gauge, Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)), Double::sum);
+            }
+        }
+        values.forEach((gauge, value) -> record(Journey.AUTH_SERVICE, gauge, value));
+    }
+
+    private void sampleParent() throws InterruptedException {
+        for (Map.Entry<String, String[]> entry : METRICS.entrySet()) {
+            String[] metric = entry.getValue();
+            try {
+                JsonNode json = mapper.readTree(get(parent.resolve("/actuator/metrics/" + metric[0])));
+                for (JsonNode measurement : json.path("measurements")) {
+                    if (measurement.path("statistic").asText().equals(metric[1])) {
+                        record(Journey.PARENT_SERVICE, entry.getKey(), measurement.path("value").asDouble());
+                    }
+                }
+            } catch (IOException e) {
+                // skipped
+            }
+        }
+    }
+
+    // The read is itself a request in progress; leave it out
+    private void record(String service, String gauge, double value) {
+        long count = Math.round(value);
+        stats.peak(service, gauge, gauge.equals("requestsActive") ? Math.max(0, count - 1) : count);
+    }
+
+    private String get(URI uri) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri).timeout(READ_TIMEOUT).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException(uri + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        thread.interrupt();
+        thread.join();
+    }
+}
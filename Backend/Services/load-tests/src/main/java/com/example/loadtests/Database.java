@@ -0,0 +1,48 @@
+package com.example.loadtests;
+
+import java.io.IOException;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * The PostgreSQL both services share, as they do in production: a throwaway
+ * embedded instance by default, or an existing server given with
+ * {@code -jdbc-url}, whose tables the run then writes to.
+ */
+final class Database implements AutoCloseable {
+    private final EmbeddedPostgres embedded;
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private Database(EmbeddedPostgres embedded, String url, String user, String password) {
+        this.embedded = embedded;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    static Database start(LoadTestOptions options) throws IOException {
+        if (options.jdbcUrl() != null) {
+            return new Database(null, options.jdbcUrl(), options.jdbcUser(), options.jdbcPassword());
+        }
+        EmbeddedPostgres embedded = EmbeddedPostgres.builder().start();
+        return new Database(embedded, embedded.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+    }
+
+    /** Datasource settings for a service, as system properties. */
+    String[] properties() {
+        return new String[] {
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=" + user,
+                "spring.datasource.password=" + password
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
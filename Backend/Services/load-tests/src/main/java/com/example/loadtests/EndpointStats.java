@@ -0,0 +1,64 @@
+package com.example.loadtests;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency and outcome counts of one endpoint, safe to record from every
+ * journey thread. Latencies are kept in microseconds up to one minute with
+ * three significant digits, so p999 is exact enough to compare runs.
+ */
+final class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder requests = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /** {@code error} is null for an expected response, else the status code or exception that failed it. */
+    void record(long latencyNanos, String error) {
+        requests.increment();
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (error != null) {
+            errors.computeIfAbsent(error, e -> new LongAdder()).increment();
+        }
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<String, Long> errors() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((error, count) -> counts.put(error, count.sum()));
+        return counts;
+    }
+
+    /** Latency at {@code percentile} (0-100) in milliseconds. */
+    double latencyMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxLatencyMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.loadtests;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * One user's visit, the way the frontend drives the services: register, log
+ * in, poll {@code /auth/session} while on the dashboard, look the parent up
+ * by email (missing for a new user), create it, add children, list them, read
+ * the parent again, refresh the access token and log out.
+ * <p>
+ * Every user has its own email and {@code X-Forwarded-For} address, as real
+ * users would, so the per-user and per-IP login throttles see ordinary
+ * traffic. A step that gets an unexpected response ends the journey, since
+ * the following steps depend on it.
+ */
+final class Journey {
+    static final String REGISTER = "POST /auth/register";
+    static final String LOGIN = "POST /auth/login";
+    static final String SESSION = "GET /auth/session";
+    static final String PARENT_MISSING = "GET /api/parents/by-email/{email} (new user)";
+    static final String CREATE_PARENT = "POST /api/parents";
+    static final String ADD_CHILD = "POST /api/parents/{id}/children";
+    static final String CHILDREN = "GET /api/parents/{id}/children";
+    static final String PARENT = "GET /api/parents/by-email/{email}";
+    static final String REFRESH = "POST /auth/refresh-token";
+    static final String LOGOUT = "POST /auth/logout";
+    static final List<String> ENDPOINTS = List.of(REGISTER, LOGIN, SESSION, PARENT_MISSING, CREATE_PARENT,
+            ADD_CHILD, CHILDREN, PARENT, REFRESH, LOGOUT);
+    static final String AUTH_SERVICE = "jwt_auth";
+    static final String PARENT_SERVICE = "parent";
+    static final List<String> SERVICES = List.of(AUTH_SERVICE, PARENT_SERVICE);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final URI auth;
+    private final URI parent;
+    private final LoadTestOptions options;
+    private final LoadStats stats;
+    private final String runId;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    Journey(HttpClient http, URI auth, URI parent, LoadTestOptions options, LoadStats stats, String runId) {
+        this.http = http;
+        this.auth = auth;
+        this.parent = parent;
+        this.options = options;
+        this.stats = stats;
+        this.runId = runId;
+    }
+
+    /**
+     * Runs the journey of user {@code n}, which arrived at {@code arrivalNanos}.
+     * The first request's latency counts from the arrival, so a load generator
+     * that falls behind shows up as latency instead of being hidden.
+     */
+    void run(long n, long arrivalNanos) throws InterruptedException {
+        boolean measured = stats.inWindow(arrivalNanos);
+        if (measured) {
+            stats.journeysStarted.increment();
+        }
+        try {
+            new Visit(n, arrivalNanos).run();
+            if (measured) {
+                stats.journeysCompleted.increment();
+            }
+        } catch (StepFailed e) {
+            if (measured) {
+                stats.journeysFailed.increment();
+            }
+        }
+    }
+
+    private final class Visit {
+        private final String email;
+        private final String password;
+        private final String forwardedFor;
+        private long nextStart;
+        private String token;
+        private String refreshToken;
+        private long parentId;
+
+        Visit(long n, long arrivalNanos) {
+            this.email = "load-" + runId + "-" + n + "@example.com";
+            this.password = "Load-" + runId + "-" + n;
+            // 10.0.0.0/8, one address per user
+            this.forwardedFor = "10." + ((n >> 16) & 0xff) + "." + ((n >> 8) & 0xff) + "." + (n & 0xff);
+            this.nextStart = arrivalNanos;
+        }
+
+        void run() throws InterruptedException, StepFailed {
+            Map<String, String> credentials = Map.of("username", email, "password", password);
+            send(REGISTER, post(auth, "/auth/register", credentials), 200);
+            think(options.think());
+
+            JsonNode tokens = json(send(LOGIN, post(auth, "/auth/login", credentials), 200));
+            token = tokens.path("token").asText();
+            refreshToken = tokens.path("refreshToken").asText();
+            for (int i = 0; i < options.polls(); i++) {
+                think(i == 0 ? options.think() : options.pollInterval());
+                send(SESSION, get(auth, "/auth/session"), 200, "true");
+            }
+
+            think(options.think());
+            send(PARENT_MISSING, get(parent, "/api/parents/by-email/" + email), 404);
+            think(options.think());
+            parentId = json(send(CREATE_PARENT, post(parent, "/api/parents", Map.of(
+                    "name", "Load Test",
+                    "email", email,
+                    "address", "1 Test Street",
+                    "numberOfChildren", options.children(),
+                    "suspectedAutisticChildCount", 0)), 200)).path("id").asLong();
+            for (int i = 0; i < options.children(); i++) {
+                think(options.think());
+                send(ADD_CHILD, post(parent, "/api/parents/" + parentId + "/children", Map.of(
+                        "name", "Child " + (i + 1),
+                        "dateOfBirth", "2019-05-0" + (i % 9 + 1),
+                        "gender", i % 2 == 0 ? "female" : "male",
+                        "height", 105.0 + i,
+                        "weight", 18.5 + i)), 200);
+            }
+            think(options.think());
+            send(CHILDREN, get(parent, "/api/parents/" + parentId + "/children"), 200);
+            think(options.think());
+            send(PARENT, get(parent, "/api/parents/by-email/" + email), 200);
+
+            think(options.think());
+            token = json(send(REFRESH, post(auth, "/auth/refresh-token", Map.of("refreshToken", refreshToken)), 200))
+                    .path("token").asText();
+            think(options.think());
+            send(LOGOUT, post(auth, "/auth/logout", Map.of()), 200);
+        }
+
+        private HttpRequest.Builder get(URI base, String path) {
+            return request(base, path).GET();
+        }
+
+        private HttpRequest.Builder post(URI base, String path, Map<String, ?> body) {
+            try {
+                return request(base, path)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // The frontend sends the jwt cookie to both services
+        private HttpRequest.Builder request(URI base, String path) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("X-Forwarded-For", forwardedFor);
+            if (token != null) {
+                request.header("Cookie", "jwt=" + token);
+            }
+            return request;
+        }
+
+        private HttpResponse<String> send(String endpoint, HttpRequest.Builder request, int expectedStatus)
+                throws InterruptedException, StepFailed {
+            return send(endpoint, request, expectedStatus, null);
+        }
+
+        private HttpResponse<String> send(String endpoint, HttpRequest.Builder request, int expectedStatus,
+                                          String expectedBody) throws InterruptedException, StepFailed {
+            long start = nextStart;
+            HttpRequest built = request.build();
+            String service = built.uri().getPort() == auth.getPort() ? AUTH_SERVICE : PARENT_SERVICE;
+            HttpResponse<String> response;
+            stats.requestSent(service);
+            try {
+                response = http.send(built, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                record(endpoint, start, e.getClass().getSimpleName());
+                throw new StepFailed();
+            } finally {
+                stats.responseReceived(service);
+            }
+            if (response.statusCode() != expectedStatus) {
+                record(endpoint, start, "HTTP " + response.statusCode());
+                throw new StepFailed();
+            }
+            if (expectedBody != null && !expectedBody.equals(response.body())) {
+                record(endpoint, start, "unexpected body");
+                throw new StepFailed();
+            }
+            record(endpoint, start, null);
+            return response;
+        }
+
+        private void record(String endpoint, long start, String error) {
+            long end = System.nanoTime();
+            stats.record(endpoint, start, end, error);
+            nextStart = end;
+        }
+
+        private JsonNode json(HttpResponse<String> response) throws StepFailed {
+            try {
+                return mapper.readTree(response.body());
+            } catch (IOException e) {
+                throw new StepFailed();
+            }
+        }
+
+        private void think(Duration delay) throws InterruptedException {
+            if (!delay.isZero()) {
+                Thread.sleep(delay.toMillis());
+            }
+            nextStart = System.nanoTime();
+        }
+    }
+
+    private static final class StepFailed extends Exception {
+        StepFailed() {
+            super(null, null, false, false);
+        }
+    }
+}
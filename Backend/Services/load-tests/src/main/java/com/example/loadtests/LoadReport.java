@@ -0,0 +1,82 @@
+package com.example.loadtests;
+
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The result file of a run: the workload options, the services' thread mode,
+ * journey counts, the peak concurrency of each service (see {@link LoadStats})
+ * and per endpoint throughput (requests/s), error rate (0-1) and
+ * p50/p99/p999/max latency in milliseconds.
+ */
+final class LoadReport {
+
+    private LoadReport() {
+    }
+
+    static ObjectNode toJson(ObjectMapper mapper, LoadTestOptions options, LoadStats stats) {
+        ObjectNode report = mapper.createObjectNode();
+        report.set("workload", mapper.valueToTree(options.workload()));
+        report.put("threads", options.threads());
+        report.put("windowSeconds", stats.windowSeconds());
+        ObjectNode journeys = report.putObject("journeys");
+        journeys.put("started", stats.journeysStarted.sum());
+        journeys.put("completed", stats.journeysCompleted.sum());
+        journeys.put("failed", stats.journeysFailed.sum());
+        journeys.put("dropped", stats.journeysDropped.sum());
+        report.set("concurrency", mapper.valueToTree(stats.peaks()));
+        ObjectNode endpoints = report.putObject("endpoints");
+        for (EndpointStats endpoint : stats.endpoints()) {
+            ObjectNode node = endpoints.putObject(endpoint.name());
+            long requests = endpoint.requests();
+            node.put("requests", requests);
+            node.put("throughput", requests / stats.windowSeconds());
+            node.put("errorRate", requests == 0 ? 0 : (double) endpoint.errorCount() / requests);
+            node.set("errors", mapper.valueToTree(endpoint.errors()));
+            node.put("p50", requests == 0 ? 0 : endpoint.latencyMillis(50));
+            node.put("p99", requests == 0 ? 0 : endpoint.latencyMillis(99));
+            node.put("p999", requests == 0 ? 0 : endpoint.latencyMillis(99.9));
+            node.put("max", requests == 0 ? 0 : endpoint.maxLatencyMillis());
+        }
+        return report;
+    }
+
+    static void print(JsonNode report, PrintStream out) {
+        JsonNode journeys = report.get("journeys");
+        out.printf("%d journeys started, %d completed, %d failed, %d dropped in %.0f s%n",
+                journeys.get("started").asLong(), journeys.get("completed").asLong(),
+                journeys.get("failed").asLong(), journeys.get("dropped").asLong(),
+                report.get("windowSeconds").asDouble());
+        printConcurrency(report, out);
+        out.printf("%-48s %9s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Iterator<Map.Entry<String, JsonNode>> it = report.get("endpoints").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            JsonNode e = entry.getValue();
+            out.printf("%-48s %9d %9.2f %6.2f%% %9.1f %9.1f %9.1f %9.1f%s%n", entry.getKey(),
+                    e.get("requests").asLong(), e.get("throughput").asDouble(), e.get("errorRate").asDouble() * 100,
+                    e.get("p50").asDouble(), e.get("p99").asDouble(), e.get("p999").asDouble(),
+                    e.get("max").asDouble(), e.get("errors").isEmpty() ? "" : "  " + e.get("errors"));
+        }
+    }
+
+    /** Peak concurrency per service, on the services' thread mode. */
+    static void printConcurrency(JsonNode report, PrintStream out) {
+        out.printf("%-10s %-8s %17s %15s %18s %19s%n", "service", "threads",
+                "requestsInFlight", "requestsActive", "connectionsActive", "connectionsPending");
+        for (Iterator<Map.Entry<String, JsonNode>> it = report.path("concurrency").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            out.printf("%-10s %-8s", entry.getKey(), report.path("threads").asText("?"));
+            for (String gauge : LoadStats.PEAKS) {
+                JsonNode peak = entry.getValue().get(gauge);
+                out.printf(" %" + (gauge.length() + 1) + "s", peak != null ? peak.asText() : "-");
+            }
+            out.println();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.loadtests;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Everything one run measures. Only requests sent inside the measured window
+ * count, so the warmup and the drain after the last arrival are left out and
+ * throughput is requests over the window length. The same goes for the peak
+ * concurrency of each service: the most requests this generator had in flight
+ * to it at once, and what {@link ConcurrencySampler} read from the service.
+ */
+final class LoadStats {
+    /** Peak gauges per service; see {@link ConcurrencySampler} for all but the first. */
+    static final List<String> PEAKS = List.of("requestsInFlight", "requestsActive", "connectionsActive",
+            "connectionsPending");
+
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new LinkedHashMap<>();
+    private final Map<String, Map<String, LongAccumulator>> peaks = new LinkedHashMap<>();
+    private final long windowStart;
+    private final long windowEnd;
+
+    // Journeys that arrived inside the window
+    final LongAdder journeysStarted = new LongAdder();
+    final LongAdder journeysCompleted = new LongAdder();
+    final LongAdder journeysFailed = new LongAdder();
+    // Arrivals that found -max-sessions journeys in flight
+    final LongAdder journeysDropped = new LongAdder();
+
+    /** {@code endpoints} are registered up front so an endpoint no journey reached still reports zero. */
+    LoadStats(List<String> endpoints, List<String> services, long windowStartNanos, long windowEndNanos) {
+        endpoints.forEach(name -> this.endpoints.put(name, new EndpointStats(name)));
+        for (String service : services) {
+            inFlight.put(service, new AtomicInteger());
+            Map<String, LongAccumulator> gauges = new LinkedHashMap<>();
+            PEAKS.forEach(gauge -> gauges.put(gauge, new LongAccumulator(Math::max, -1)));
+            peaks.put(service, gauges);
+        }
+        this.windowStart = windowStartNanos;
+        this.windowEnd = windowEndNanos;
+    }
+
+    boolean inWindow(long nanos) {
+        return nanos - windowStart >= 0 && nanos - windowEnd < 0;
+    }
+
+    void record(String endpoint, long startNanos, long endNanos, String error) {
+        if (inWindow(startNanos)) {
+            endpoints.get(endpoint).record(endNanos - startNanos, error);
+        }
+    }
+
+    void requestSent(String service) {
+        peak(service, "requestsInFlight", inFlight.get(service).incrementAndGet());
+    }
+
+    void responseReceived(String service) {
+        inFlight.get(service).decrementAndGet();
+    }
+
+    /** Keeps {@code value} if it is the highest of {@code gauge} so far inside the window. */
+    void peak(String service, String gauge, long value) {
+        if (inWindow(System.nanoTime())) {
+            peaks.get(service).get(gauge).accumulate(value);
+        }
+    }
+
+    /** Peaks per service and gauge; a gauge that was never read inside the window is left out. */
+    Map<String, Map<String, Long>> peaks() {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        peaks.forEach((service, gauges) -> {
+            Map<String, Long> values = new LinkedHashMap<>();
+            gauges.forEach((gauge, peak) -> {
+                if (peak.get() >= 0) {
+                    values.put(gauge, peak.get());
+                }
+            });
+            result.put(service, values);
+        });
+        return result;
+    }
+
+    Collection<EndpointStats> endpoints() {
+        return endpoints.values();
+    }
+
+    double windowSeconds() {
+        return (windowEnd - windowStart) / 1e9;
+    }
+}
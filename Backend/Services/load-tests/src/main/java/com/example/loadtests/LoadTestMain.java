@@ -0,0 +1,180 @@
+package com.example.loadtests;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Entry point of {@code load-tests.jar}: starts PostgreSQL, jwt_auth and
+ * parent, runs {@link Journey journeys} at the configured arrival rate,
+ * writes the result file and compares it with the baseline, by default the
+ * {@code load-baseline.json} of this module.
+ * <p>
+ * Arrivals follow an open model: a new journey starts on schedule whether or
+ * not earlier ones have finished, as new users do, so a slow service builds
+ * up journeys in flight and latency instead of quietly lowering the load.
+ * Exits with 1 when the baseline regressed and 2 when the run could not be set up.
+ *
+ * <pre>
+ * java -jar load-tests.jar -rate 0.5 -duration 2m -baseline load-baseline.json
+ * </pre>
+ * Platform against virtual threads, with the services on a JDK 21:
+ * <pre>
+ * java -jar load-tests.jar -rate 20 -service-jdk /opt/jdk-21 -threads platform -baseline none -result platform.json
+ * java -jar load-tests.jar -rate 20 -service-jdk /opt/jdk-21 -threads virtual -baseline platform.json
+ * </pre>
+ * See {@link LoadTestOptions} for all options.
+ */
+public final class LoadTestMain {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(2);
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: java -jar load-tests.jar [-rate 0.5] [-duration 2m] [-baseline file|none] ...,"
+                    + " see LoadTestOptions");
+            System.exit(2);
+            return;
+        }
+        if (options.baseline() != null && !Files.isRegularFile(options.baseline())) {
+            System.err.println("Baseline " + options.baseline() + " not found; run from load-tests or pass -baseline none");
+            System.exit(2);
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode report;
+        try (Database database = Database.start(options);
+             ServiceProcess auth = startAuth(options, database);
+             ServiceProcess parent = startParent(options, database, auth)) {
+            report = LoadReport.toJson(mapper, options, run(options, auth, parent));
+        } catch (IOException e) {
+            System.err.println("Load test setup failed: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(options.result().toFile(), report);
+        LoadReport.print(report, System.out);
+        System.out.println("Result written to " + options.result());
+        if (options.baseline() != null) {
+            boolean regressed = CompareBaseline.report(mapper.readTree(options.baseline().toFile()), report,
+                    options.threshold());
+            System.exit(regressed ? 1 : 0);
+        }
+    }
+
+    private static ServiceProcess startAuth(LoadTestOptions options, Database database)
+            throws IOException, InterruptedException {
+        System.out.println("Starting jwt_auth");
+        ServiceProcess auth = ServiceProcess.start(options.serviceJdk(),
+                ServiceProcess.requireFile(options.services().resolve("jwt_auth.jar")),
+                "authentication-service", options.services().resolve("configurations"), properties(options, database));
+        auth.awaitReady("/.well-known/jwks.json", STARTUP_TIMEOUT);
+        return auth;
+    }
+
+    private static ServiceProcess startParent(LoadTestOptions options, Database database, ServiceProcess auth)
+            throws IOException, InterruptedException {
+        System.out.println("Starting parent");
+        List<String> properties = properties(options, database);
+        properties.add("parent.auth.jwks.uri=" + auth.uri().resolve("/.well-known/jwks.json"));
+        ServiceProcess parent = ServiceProcess.start(options.serviceJdk(),
+                ServiceProcess.requireFile(options.services().resolve("parent.jar")),
+                "parent-service", options.services().resolve("configurations"), properties);
+        parent.awaitReady("/actuator/health", STARTUP_TIMEOUT);
+        return parent;
+    }
+
+    // Production settings; tracing is off since there is no collector to export to
+    private static List<String> properties(LoadTestOptions options, Database database) {
+        List<String> properties = new ArrayList<>(List.of(database.properties()));
+        properties.add("spring.profiles.active=prod");
+        properties.add("spring.threads.virtual.enabled=" + options.virtualThreads());
+        properties.add("management.tracing.enabled=false");
+        return properties;
+    }
+
+    private static LoadStats run(LoadTestOptions options, ServiceProcess auth, ServiceProcess parent)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long windowStart = start + options.warmup().toNanos();
+        long end = windowStart + options.duration().toNanos();
+        LoadStats stats = new LoadStats(Journey.ENDPOINTS, Journey.SERVICES, windowStart, end);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Journey journey = new Journey(http, auth.uri(), parent.uri(), options, stats,
+                Long.toString(System.currentTimeMillis(), 36));
+
+        // No queue: an arrival either gets a thread now or is dropped, never started late
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor journeys = new ThreadPoolExecutor(0, options.maxSessions(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), task -> {
+                    Thread thread = new Thread(task, "journey-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        System.out.printf("Warming up for %s, then measuring for %s at %s journeys/s on %s threads%n",
+                options.warmup(), options.duration(), options.rate(), options.threads());
+        ConcurrencySampler sampler = new ConcurrencySampler(http, stats, auth.uri(), parent.uri());
+        Random gaps = new Random(options.seed());
+        long arrival = start;
+        for (long n = 0; arrival - end < 0; n++) {
+            long delay = arrival - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            long user = n;
+            long arrivedAt = arrival;
+            try {
+                journeys.execute(() -> {
+                    try {
+                        journey.run(user, arrivedAt);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                if (stats.inWindow(arrival)) {
+                    stats.journeysDropped.increment();
+                }
+            }
+            arrival += interarrivalNanos(options, gaps);
+        }
+        System.out.printf("Waiting for %d journeys in flight%n", journeys.getActiveCount());
+        journeys.shutdown();
+        if (!journeys.awaitTermination(DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            journeys.shutdownNow();
+        }
+        sampler.close();
+        return stats;
+    }
+
+    private static long interarrivalNanos(LoadTestOptions options, Random gaps) {
+        double mean = 1e9 / options.rate();
+        if (!options.poisson()) {
+            return (long) mean;
+        }
+        // Exponential gaps: a Poisson process, with the bursts real arrivals have
+        return (long) (-Math.log(1 - gaps.nextDouble()) * mean);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.loadtests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTestMain}: {@code -name value} pairs, all optional.
+ *
+ * <pre>
+ * -rate 0.5                journeys started per second (open model: independent of response times)
+ * -arrivals poisson        poisson (exponential gaps) or uniform
+ * -seed 1                  of the poisson gaps; the same seed gives the same arrival times
+ * -duration 2m             measured window
+ * -warmup 30s              run at full rate first, not measured
+ * -polls 5                 /auth/session polls per journey
+ * -poll-interval 2s        think time between polls
+ * -children 2              children added per journey
+ * -think 500ms             think time between the other steps
+ * -max-sessions 500        journeys in flight; arrivals beyond are dropped and reported
+ * -threads platform        platform or virtual: spring.threads.virtual.enabled of both services
+ * -service-jdk path        JDK the services run on (default: this one); virtual threads need 21+
+ * -jdbc-url url            existing PostgreSQL instead of the embedded one (with -jdbc-user, -jdbc-password)
+ * -services target/services  jwt_auth.jar, parent.jar and configurations/
+ * -result load-result.json
+ * -baseline load-baseline.json  fail if a latency, error rate or throughput regressed against this
+ *                          result; none to skip the check
+ * -threshold 0.2           allowed relative regression
+ * </pre>
+ */
+record LoadTestOptions(double rate, boolean poisson, long seed, Duration duration, Duration warmup, int polls,
+                       Duration pollInterval, int children, Duration think, int maxSessions,
+                       boolean virtualThreads, Path serviceJdk, String jdbcUrl, String jdbcUser, String jdbcPassword, Path services,
+                       Path result, Path baseline, double threshold) {
+
+    static LoadTestOptions parse(String... args) {
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Options are -name value pairs, got " + String.join(" ", args));
+        }
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("-")) {
+                throw new IllegalArgumentException("Expected an option, got " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        LoadTestOptions parsed = new LoadTestOptions(
+                Double.parseDouble(take(options, "rate", "0.5")),
+                switch (take(options, "arrivals", "poisson")) {
+                    case "poisson" -> true;
+                    case "uniform" -> false;
+                    default -> throw new IllegalArgumentException("-arrivals is poisson or uniform");
+                },
+                Long.parseLong(take(options, "seed", "1")),
+                duration(take(options, "duration", "2m")),
+                duration(take(options, "warmup", "30s")),
+                Integer.parseInt(take(options, "polls", "5")),
+                duration(take(options, "poll-interval", "2s")),
+                Integer.parseInt(take(options, "children", "2")),
+                duration(take(options, "think", "500ms")),
+                Integer.parseInt(take(options, "max-sessions", "500")),
+                switch (take(options, "threads", "platform")) {
+                    case "platform" -> false;
+                    case "virtual" -> true;
+                    default -> throw new IllegalArgumentException("-threads is platform or virtual");
+                },
+                Path.of(take(options, "service-jdk", System.getProperty("java.home"))),
+                take(options, "jdbc-url", null),
+                take(options, "jdbc-user", "postgres"),
+                take(options, "jdbc-password", "postgres"),
+                Path.of(take(options, "services", "target/services")),
+                Path.of(take(options, "result", "load-result.json")),
+                baseline(take(options, "baseline", "load-baseline.json")),
+                Double.parseDouble(take(options, "threshold", "0.2")));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        if (parsed.rate <= 0 || parsed.maxSessions <= 0 || parsed.duration.isZero()) {
+            throw new IllegalArgumentException("-rate, -max-sessions and -duration must be positive");
+        }
+        return parsed;
+    }
+
+    String threads() {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    /** The options that shape the load; results are only comparable when these match. */
+    Map<String, Object> workload() {
+        Map<String, Object> workload = new LinkedHashMap<>();
+        workload.put("rate", rate);
+        workload.put("arrivals", poisson ? "poisson" : "uniform");
+        if (poisson) {
+            workload.put("seed", seed);
+        }
+        workload.put("polls", polls);
+        workload.put("pollInterval", pollInterval.toString());
+        workload.put("children", children);
+        workload.put("think", think.toString());
+        return workload;
+    }
+
+    private static String take(Map<String, String> options, String name, String defaultValue) {
+        String value = options.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Path baseline(String value) {
+        return value.equals("none") ? null : Path.of(value);
+    }
+
+    // 500ms, 30s, 2m or ISO-8601
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.loadtests;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service started from its executable jar in a child JVM, with the
+ * config-server files read directly instead of fetched and the output sent to
+ * a log file next to the jar.
+ */
+final class ServiceProcess implements AutoCloseable {
+    private final String name;
+    private final Process process;
+    private final Path log;
+    private final URI uri;
+
+    private ServiceProcess(String name, Process process, Path log, URI uri) {
+        this.name = name;
+        this.process = process;
+        this.log = log;
+        this.uri = uri;
+    }
+
+    /**
+     * Starts {@code jar} as {@code applicationName} on a free port, with the
+     * {@code java} of {@code jdk}. {@code properties} are passed as {@code -Dkey=value}.
+     */
+    static ServiceProcess start(Path jdk, Path jar, String applicationName, Path configurations,
+                                List<String> properties) throws IOException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(
+                jdk.resolve("bin").resolve("java").toString(),
+                "-Dspring.config.name=application," + applicationName,
+                "-Dspring.config.additional-location=optional:file:" + configurations.toAbsolutePath() + "/",
+                "-Dspring.cloud.config.enabled=false",
+                "-Deureka.client.enabled=false",
+                "-Dserver.port=" + port));
+        properties.forEach(property -> command.add("-D" + property));
+        command.addAll(List.of("-jar", jar.toString()));
+        Path log = jar.resolveSibling(applicationName + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        // Also stop it when the load test is interrupted
+        Runtime.getRuntime().addShutdownHook(new Thread(process::destroy));
+        return new ServiceProcess(applicationName, process, log, URI.create("http://localhost:" + port));
+    }
+
+    URI uri() {
+        return uri;
+    }
+
+    /** Waits until {@code path} answers 200, failing early if the process exits. */
+    void awaitReady(String path, Duration timeout) throws IOException, InterruptedException {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri.resolve(path)).timeout(Duration.ofSeconds(5)).build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) {
+                throw new IOException(name + " exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IOException(name + " not ready after " + timeout + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    static Path requireFile(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            throw new IOException(path + " not found; build it with mvn package, see the load-tests pom");
+        }
+        return path;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.loadtests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CompareBaselineTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void slowerP99BeyondThresholdIsARegression() throws Exception {
+		List<CompareBaseline.Comparison> comparisons = CompareBaseline.compare(
+				run(endpoint(500, 10.0, 20.0, 0)), run(endpoint(500, 10.0, 30.0, 0)), 0.2);
+		assertFalse(metric(comparisons, "p50").regressed());
+		assertTrue(metric(comparisons, "p99").regressed());
+		assertEquals(0.5, metric(comparisons, "p99").change(), 1e-9);
+		// 500 requests are too few to measure p999
+		assertTrue(comparisons.stream().noneMatch(c -> c.metric().equals("p999")));
+	}
+
+	@Test
+	void smallAbsoluteLatencyChangeIsNoise() throws Exception {
+		List<CompareBaseline.Comparison> comparisons = CompareBaseline.compare(
+				run(endpoint(2000, 1.0, 2.0, 0)), run(endpoint(2000, 2.0, 3.5, 0)), 0.2);
+		assertTrue(comparisons.stream().noneMatch(CompareBaseline.Comparison::regressed));
+	}
+
+	@Test
+	void lowerThroughputAndMoreErrorsAreRegressions() throws Exception {
+		List<CompareBaseline.Comparison> comparisons = CompareBaseline.compare(
+				run(endpoint(1000, 10.0, 20.0, 0)), run(endpoint(700, 10.0, 20.0, 0.01)), 0.2);
+		assertTrue(metric(comparisons, "throughput").regressed());
+		assertTrue(metric(comparisons, "errorRate").regressed());
+	}
+
+	@Test
+	void workloadReadBackFromItsFileIsTheSame() throws Exception {
+		JsonNode current = mapper.valueToTree(Map.of("workload", Map.of("rate", 0.5, "seed", 1L)));
+		JsonNode stored = mapper.readTree(mapper.writeValueAsString(current));
+		assertTrue(CompareBaseline.sameWorkload(stored, current));
+		assertFalse(CompareBaseline.sameWorkload(stored,
+				mapper.valueToTree(Map.of("workload", Map.of("rate", 0.5, "seed", 2L)))));
+	}
+
+	private JsonNode run(String endpoint) throws Exception {
+		return mapper.readTree("{\"endpoints\": {\"POST /auth/login\": " + endpoint + "}}");
+	}
+
+	private static String endpoint(long requests, double p50, double p99, double errorRate) {
+		return """
+				{"requests": %d, "throughput": %s, "errorRate": %s, "p50": %s, "p99": %s, "p999": %s}
+				""".formatted(requests, requests / 100.0, errorRate, p50, p99, p99 + 1);
+	}
+
+	private static CompareBaseline.Comparison metric(List<CompareBaseline.Comparison> comparisons, String metric) {
+		return comparisons.stream().filter(c -> c.metric().equals(metric)).findFirst().orElseThrow();
+	}
+}
@@ -2,32 +2,50 @@ package com.example.parent;
 
 import java.time.LocalDate;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.parent.config.SecondLevelCacheConfig;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "child")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.CHILD_REGION)
+// Serves the keyset-paged and streamed listings (WHERE parent_id = ? AND id > ? ORDER BY id)
+@Table(name = "child", indexes = @Index(name = "child_parent_id_id_idx", columnList = "parent_id, id"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Child {
+    // Pooled sequence so inserts can be JDBC-batched (IDENTITY forces one round-trip per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "child_seq")
+    @SequenceGenerator(name = "child_seq", sequenceName = "child_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     private String name;
     private LocalDate dateOfBirth;
     private String gender;
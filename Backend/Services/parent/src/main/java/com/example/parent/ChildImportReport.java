@@ -0,0 +1,18 @@
+package com.example.parent;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk child import. {@code errors} holds at most the first
+ * few hundred rejected rows; {@code rejected} is the full count.
+ */
+public record ChildImportReport(long received,
+                                long imported,
+                                long rejected,
+                                List<RowError> errors,
+                                long elapsedMillis,
+                                double rowsPerSecond) {
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.parent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Imports children from a streamed JSON array or CSV body. Rows are parsed
+ * and validated one at a time and valid ones are written in batches of
+ * {@code batchSize}, each batch in its own transaction, so memory stays
+ * bounded by the batch size rather than the payload size. With the pooled
+ * child_seq generator and hibernate.jdbc.batch_size, each batch goes to the
+ * database as JDBC batches rather than one INSERT round-trip per row.
+ * <p>
+ * Committed batches stay committed, so every failure after the first one is
+ * reported rather than thrown: a batch the database rejects is retried row
+ * by row and only the offending rows are reported, and a body that turns
+ * malformed part way through ends the import with an error for that element.
+ */
+@Service
+public class ChildImportService {
+    private static final int MAX_REPORTED_ERRORS = 500;
+    private static final String[] CSV_COLUMNS = {"name", "dateOfBirth", "gender", "height", "weight"};
+    // child.name and child.gender are varchar(255)
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ParentRepository parentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ChildImportService(ParentRepository parentRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${parent.children.import.batch-size:500}") int batchSize) {
+        this.parentRepository = parentRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public ChildImportReport importJson(Long parentId, InputStream body) throws IOException {
+        Run run = new Run(parentId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of children");
+            }
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                    JsonNode node = objectMapper.readTree(parser);
+                    run.accept(text(node, "name"), text(node, "dateOfBirth"), text(node, "gender"),
+                            text(node, "height"), text(node, "weight"));
+                }
+                if (token != JsonToken.END_ARRAY) {
+                    run.stop("expected a child object, import stopped");
+                }
+            } catch (JsonProcessingException e) {
+                run.stop("malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    public ChildImportReport importCsv(Long parentId, InputStream body) throws IOException {
+        Run run = new Run(parentId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return run.finish();
+            }
+            Map<String, Integer> index = new HashMap<>();
+            List<String> names = parseCsvLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                index.put(names.get(i).trim(), i);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                String[] values = new String[CSV_COLUMNS.length];
+                for (int c = 0; c < CSV_COLUMNS.length; c++) {
+                    Integer i = index.get(CSV_COLUMNS[c]);
+                    values[c] = i != null && i < fields.size() ? fields.get(i) : null;
+                }
+                run.accept(values[0], values[1], values[2], values[3], values[4]);
+            }
+        }
+        return run.finish();
+    }
+
+    private record PendingRow(long row, Child child) {
+    }
+
+    private final class Run {
+        private final Long parentId;
+        private final long start = System.nanoTime();
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final List<ChildImportReport.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        Run(Long parentId) {
+            this.parentId = parentId;
+        }
+
+        void accept(String name, String dateOfBirth, String gender, String height, String weight) {
+            long row = ++received;
+            try {
+                pending.add(new PendingRow(row, toChild(name, dateOfBirth, gender, height, weight)));
+            } catch (IllegalArgumentException e) {
+                reject(row, e.getMessage());
+            }
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        // The element after the last one received could not be read; nothing after it is
+        void stop(String message) {
+            reject(++received, message);
+        }
+
+        ChildImportReport finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - start;
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return new ChildImportReport(received, imported, rejected, errors,
+                    elapsedNanos / 1_000_000, seconds > 0 ? imported / seconds : 0);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                insert(pending);
+                imported += pending.size();
+            } catch (DataAccessException | PersistenceException e) {
+                if (isRowLevel(e)) {
+                    // Find the offending rows; the others still go in, one transaction each
+                    for (PendingRow row : pending) {
+                        try {
+                            insert(List.of(row));
+                            imported++;
+                        } catch (DataAccessException | PersistenceException rowFailure) {
+                            reject(row.row(), rejection(rowFailure));
+                        }
+                    }
+                } else {
+                    for (PendingRow row : pending) {
+                        reject(row.row(), "not imported: " + e.getMessage());
+                    }
+                }
+            }
+            pending.clear();
+        }
+
+        private void insert(List<PendingRow> rows) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Parent parent = entityManager.getReference(Parent.class, parentId);
+                for (PendingRow row : rows) {
+                    // A rolled-back attempt leaves the generated id and version behind
+                    row.child().setId(null);
+                    row.child().setVersion(null);
+                    row.child().setParent(parent);
+                    entityManager.persist(row.child());
+                }
+                entityManager.flush();
+                entityManager.clear();
+                parentRepository.incrementVersion(parentId);
+            });
+        }
+
+        private void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ChildImportReport.RowError(row, message));
+            }
+        }
+    }
+
+    // Caused by the data in some row rather than by the database being unavailable
+    private static boolean isRowLevel(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DataIntegrityViolationException || t instanceof ConstraintViolationException
+                    || t instanceof DataException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String rejection(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DataException) {
+                return "a value does not fit its column";
+            }
+        }
+        return isRowLevel(e) ? "violates a database constraint" : "not imported: " + e.getMessage();
+    }
+
+    private static Child toChild(String name, String dateOfBirth, String gender, String height, String weight) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (name.trim().length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (gender != null && gender.trim().length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("gender is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        LocalDate dob = null;
+        if (dateOfBirth != null && !dateOfBirth.isBlank()) {
+            try {
+                dob = LocalDate.parse(dateOfBirth.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("dateOfBirth must be YYYY-MM-DD");
+            }
+            if (dob.isAfter(LocalDate.now())) {
+                throw new IllegalArgumentException("dateOfBirth is in the future");
+            }
+        }
+        Child child = new Child();
+        child.setName(name.trim());
+        child.setDateOfBirth(dob);
+        child.setGender(gender != null && !gender.isBlank() ? gender.trim() : null);
+        child.setHeight(positive("height", height));
+        child.setWeight(positive("weight", weight));
+        return child;
+    }
+
+    private static Double positive(String field, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (parsed <= 0) {
+                throw new IllegalArgumentException(field + " must be positive");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // Minimal RFC 4180 field splitting: commas, double-quoted fields and "" escapes
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.parent;
+
+import java.util.List;
+
+/**
+ * One keyset page of children. Pass {@code nextCursor} as {@code after} to
+ * get the following page; it is null on the last page.
+ */
+public record ChildPage(List<Child> items, Long nextCursor) {
+}
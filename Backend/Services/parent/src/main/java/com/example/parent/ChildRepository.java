@@ -1,9 +1,32 @@
 package com.example.parent;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.example.parent.config.SecondLevelCacheConfig;
+
+import jakarta.persistence.QueryHint;
 
 public interface ChildRepository extends JpaRepository<Child, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.CHILD_QUERY_REGION)
+    })
     List<Child> findByParentId(Long parentId);
-} 
\ No newline at end of file
+
+    @Query("select coalesce(c.version, 0) from Child c where c.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // Owner of a child for ParentOwnershipInterceptor
+    @Query("select c.parent.email from Child c where c.id = :id")
+    Optional<String> findParentEmailById(Long id);
+
+    // Keyset page: seeks straight to the cursor on the primary key instead of skipping OFFSET rows
+    List<Child> findByParentIdAndIdGreaterThanOrderByIdAsc(Long parentId, Long afterId, Limit limit);
+} 
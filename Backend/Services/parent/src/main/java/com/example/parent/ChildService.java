@@ -0,0 +1,49 @@
+package com.example.parent;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Single-child writes. Children are part of the parent's representation, so
+ * each write bumps the parent's version in the same transaction as the
+ * child row, and the parent's ETag can never miss a change.
+ */
+@Service
+public class ChildService {
+    private final ParentRepository parentRepository;
+    private final ChildRepository childRepository;
+
+    public ChildService(ParentRepository parentRepository, ChildRepository childRepository) {
+        this.parentRepository = parentRepository;
+        this.childRepository = childRepository;
+    }
+
+    // Empty when the parent does not exist
+    @Transactional
+    public Optional<Child> addChild(Long parentId, Child child) {
+        Optional<Parent> parent = parentRepository.findById(parentId);
+        if (parent.isEmpty()) {
+            return Optional.empty();
+        }
+        child.setParent(parent.get());
+        Child saved = childRepository.save(child);
+        parentRepository.incrementVersion(parentId);
+        return Optional.of(saved);
+    }
+
+    // False when the child does not exist
+    @Transactional
+    public boolean deleteChild(Long childId) {
+        Optional<Child> child = childRepository.findById(childId);
+        if (child.isEmpty()) {
+            return false;
+        }
+        childRepository.delete(child.get());
+        if (child.get().getParent() != null) {
+            parentRepository.incrementVersion(child.get().getParent().getId());
+        }
+        return true;
+    }
+}
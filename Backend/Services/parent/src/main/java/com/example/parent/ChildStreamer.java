@@ -0,0 +1,100 @@
+package com.example.parent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes a parent's children as newline-delimited JSON straight from a
+ * forward-only JDBC cursor. The PostgreSQL driver only fetches in chunks of
+ * {@code fetchSize} when autocommit is off, hence the read-only transaction;
+ * each row is written and dropped, so heap use does not grow with the result.
+ * Output is flushed once per fetched chunk rather than per row.
+ * <p>
+ * The transaction, and with it a pooled connection, stays open while rows are
+ * written to the client, so a slow reader holds a connection. A stream is
+ * therefore cut off after {@code max-duration}, checked before each row; the
+ * client sees a truncated body and can resume with the keyset-paged listing.
+ * A write that blocks because the client stopped reading is ended by the
+ * async request timeout ({@code spring.mvc.async.request-timeout}), which is
+ * set just above {@code max-duration}.
+ */
+@Component
+public class ChildStreamer {
+    private static final String SQL =
+            "SELECT id, version, name, date_of_birth, gender, height, weight FROM child WHERE parent_id = ? ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    // writeValue would otherwise flush the response after every row
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+    private final Duration maxDuration;
+
+    public ChildStreamer(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${parent.children.stream.fetch-size:500}") int fetchSize,
+                         @Value("${parent.children.stream.max-duration:30s}") Duration maxDuration) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Also becomes the statement timeout of the query itself
+        this.transactionTemplate.setTimeout((int) Math.max(1, maxDuration.toSeconds()));
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.maxDuration = maxDuration;
+    }
+
+    public void write(Long parentId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int[] written = {0};
+            long deadline = System.nanoTime() + maxDuration.toNanos();
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SQL, rs -> {
+                Date dateOfBirth = rs.getDate("date_of_birth");
+                Child child = new Child(
+                        rs.getLong("id"),
+                        (Long) rs.getObject("version"),
+                        rs.getString("name"),
+                        dateOfBirth != null ? dateOfBirth.toLocalDate() : null,
+                        rs.getString("gender"),
+                        (Double) rs.getObject("height"),
+                        (Double) rs.getObject("weight"),
+                        null);
+                if (System.nanoTime() - deadline > 0) {
+                    throw new QueryTimeoutException("Child stream of parent " + parentId
+                            + " exceeded " + maxDuration + " after " + written[0] + " rows");
+                }
+                try {
+                    rowWriter.writeValue(generator, child);
+                    generator.writeRaw('\n');
+                    if (++written[0] % fetchSize == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, parentId));
+        }
+    }
+}
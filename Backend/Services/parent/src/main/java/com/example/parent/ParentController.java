@@ -1,101 +1,245 @@
 package com.example.parent;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.parent.config.JwtVerificationFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
 @RestController
 @RequestMapping("/api/parents")
 public class ParentController {
     @Autowired private ParentRepository parentRepository;
     @Autowired private ChildRepository childRepository;
+    @Autowired private ChildStreamer childStreamer;
+    @Autowired private ChildImportService childImportService;
+    @Autowired private ChildService childService;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     // Get parent by email
     @GetMapping("/by-email/{email}")
-    public ResponseEntity<Parent> getParentByEmail(@PathVariable String email) {
-        return parentRepository.findByEmail(email)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<Parent> getParentByEmail(@PathVariable String email,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = parentRepository.findVersionByEmail(email);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (anyMatches(ifNoneMatch, etag(version.get()), true)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version.get())).build();
+            }
+        }
+        return parentRepository.findWithChildrenByEmail(email)
+                .map(p -> ResponseEntity.ok().eTag(etag(p.getVersion())).body(p))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Get parent by ID
     @GetMapping("/{parentId}")
-    public ResponseEntity<Parent> getParentById(@PathVariable Long parentId) {
-        return parentRepository.findById(parentId)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<Parent> getParentById(@PathVariable Long parentId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = parentRepository.findVersionById(parentId);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (anyMatches(ifNoneMatch, etag(version.get()), true)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version.get())).build();
+            }
+        }
+        return parentRepository.findWithChildrenById(parentId)
+                .map(p -> ResponseEntity.ok().eTag(etag(p.getVersion())).body(p))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // Create or update parent info
+    // Create or update parent info; with token verification on, only for the caller's own email
     @PostMapping
-    public ResponseEntity<Parent> createOrUpdateParent(@RequestBody Parent parent) {
-        Optional<Parent> existing = parentRepository.findByEmail(parent.getEmail());
+    public ResponseEntity<Parent> createOrUpdateParent(@RequestBody Parent parent,
+                                                       @RequestAttribute(name = JwtVerificationFilter.SUBJECT_ATTRIBUTE, required = false) String subject) {
+        if (subject != null && !subject.equals(parent.getEmail())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Optional<Parent> existing = parentRepository.findWithChildrenByEmail(parent.getEmail());
         if (existing.isPresent()) {
             Parent p = existing.get();
             p.setName(parent.getName());
             p.setAddress(parent.getAddress());
             p.setNumberOfChildren(parent.getNumberOfChildren());
             p.setSuspectedAutisticChildCount(parent.getSuspectedAutisticChildCount());
-            return ResponseEntity.ok(parentRepository.save(p));
+            Parent saved = parentRepository.save(p);
+            return ResponseEntity.ok().eTag(etag(saved.getVersion())).body(saved);
         } else {
-            return ResponseEntity.ok(parentRepository.save(parent));
+            Parent saved = parentRepository.save(parent);
+            return ResponseEntity.ok().eTag(etag(saved.getVersion())).body(saved);
         }
     }
 
-    // Update parent info by ID
+    // Update parent info by ID; with If-Match the update only applies to the version the client last saw
     @PutMapping("/{parentId}")
-    public ResponseEntity<Parent> updateParent(@PathVariable Long parentId, @RequestBody Parent parent) {
-        return parentRepository.findById(parentId)
-                .map(existingParent -> {
-                    // Only allow updating specific fields
-                    existingParent.setAddress(parent.getAddress());
-                    existingParent.setNumberOfChildren(parent.getNumberOfChildren());
-                    existingParent.setSuspectedAutisticChildCount(parent.getSuspectedAutisticChildCount());
-                    return ResponseEntity.ok(parentRepository.save(existingParent));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Parent> updateParent(@PathVariable Long parentId, @RequestBody Parent parent,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Parent> found = parentRepository.findWithChildrenById(parentId);
+        if (found.isEmpty()) {
+            // No current representation, so no If-Match can match (RFC 9110, 13.1.1)
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.NOT_FOUND).build();
+        }
+        Parent existingParent = found.get();
+        if (ifMatch != null && !anyMatches(ifMatch, etag(existingParent.getVersion()), false)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        // Only allow updating specific fields
+        existingParent.setAddress(parent.getAddress());
+        existingParent.setNumberOfChildren(parent.getNumberOfChildren());
+        existingParent.setSuspectedAutisticChildCount(parent.getSuspectedAutisticChildCount());
+        try {
+            Parent saved = parentRepository.save(existingParent);
+            return ResponseEntity.ok().eTag(etag(saved.getVersion())).body(saved);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Someone else wrote between our read and this save
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
     }
 
-    // Get all children for a parent
+    // Get all children for a parent; tagged with the parent's version, which moves whenever a child changes
     @GetMapping("/{parentId}/children")
-    public ResponseEntity<List<Child>> getChildren(@PathVariable Long parentId) {
-        return ResponseEntity.ok(childRepository.findByParentId(parentId));
+    public ResponseEntity<List<Child>> getChildren(@PathVariable Long parentId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Long> version = parentRepository.findVersionById(parentId);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(childRepository.findByParentId(parentId));
+        }
+        String etag = etag(version.get());
+        if (ifNoneMatch != null && anyMatches(ifNoneMatch, etag, true)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(childRepository.findByParentId(parentId));
+    }
+
+    // Get one keyset page of children, ordered by id
+    @GetMapping("/{parentId}/children/page")
+    public ResponseEntity<ChildPage> getChildrenPage(@PathVariable Long parentId,
+                                                     @RequestParam(defaultValue = "0") Long after,
+                                                     @RequestParam(defaultValue = "50") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Child> items = childRepository.findByParentIdAndIdGreaterThanOrderByIdAsc(parentId, after, Limit.of(limit));
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return ResponseEntity.ok(new ChildPage(items, nextCursor));
+    }
+
+    // Stream all children as newline-delimited JSON without loading them into memory
+    @GetMapping(value = "/{parentId}/children/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamChildren(@PathVariable Long parentId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> childStreamer.write(parentId, out));
     }
 
     // Add a new child to a parent
     @PostMapping("/{parentId}/children")
     public ResponseEntity<Child> addChild(@PathVariable Long parentId, @RequestBody Child child) {
-        Parent parent = parentRepository.findById(parentId)
-                .orElseThrow(() -> new RuntimeException("Parent not found"));
-        child.setParent(parent);
-        return ResponseEntity.ok(childRepository.save(child));
+        return childService.addChild(parentId, child)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Bulk import children from a JSON array; the body is parsed as it arrives
+    @PostMapping(value = "/{parentId}/children/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importChildrenJson(@PathVariable Long parentId, InputStream body) throws IOException {
+        if (!parentRepository.existsById(parentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(childImportService.importJson(parentId, body));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest()
+                    .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getOriginalMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+    }
+
+    // Bulk import children from CSV with a header row (name,dateOfBirth,gender,height,weight)
+    @PostMapping(value = "/{parentId}/children/import", consumes = "text/csv")
+    public ResponseEntity<?> importChildrenCsv(@PathVariable Long parentId, InputStream body) throws IOException {
+        if (!parentRepository.existsById(parentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(childImportService.importCsv(parentId, body));
     }
 
     // Get a specific child by id
     @GetMapping("/children/{childId}")
-    public ResponseEntity<Child> getChild(@PathVariable Long childId) {
+    public ResponseEntity<Child> getChild(@PathVariable Long childId,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = childRepository.findVersionById(childId);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (anyMatches(ifNoneMatch, etag(version.get()), true)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version.get())).build();
+            }
+        }
         return childRepository.findById(childId)
-                .map(ResponseEntity::ok)
+                .map(c -> ResponseEntity.ok().eTag(etag(c.getVersion())).body(c))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Delete a specific child by id
     @DeleteMapping("/children/{childId}")
     public ResponseEntity<Void> deleteChild(@PathVariable Long childId) {
-        if (!childRepository.existsById(childId)) {
-            return ResponseEntity.notFound().build();
+        return childService.deleteChild(childId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // Strong ETag straight from the @Version column; rows predating the column count as version 0
+    private static String etag(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    // If-None-Match compares weakly (a W/ prefix is ignored); If-Match needs a strong match
+    private static boolean anyMatches(String header, String etag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
         }
-        childRepository.deleteById(childId);
-        return ResponseEntity.noContent().build();
+        return false;
     }
 } 
\ No newline at end of file
@@ -2,8 +2,51 @@ package com.example.parent;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.example.parent.config.SecondLevelCacheConfig;
+
+import jakarta.persistence.QueryHint;
 
 public interface ParentRepository extends JpaRepository<Parent, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.PARENT_QUERY_REGION)
+    })
     Optional<Parent> findByEmail(String email);
+
+    // Parent and children in one LEFT JOIN, so serializing children needs no further query.
+    // Cached: a hit resolves the id here and the parent and its children from the entity regions.
+    @EntityGraph(attributePaths = "children")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.PARENT_QUERY_REGION)
+    })
+    Optional<Parent> findWithChildrenByEmail(String email);
+
+    @EntityGraph(attributePaths = "children")
+    Optional<Parent> findWithChildrenById(Long id);
+
+    // Version-only probes for conditional requests. Never cached: the query cache is per instance
+    // and could hand back a version another instance has already moved past.
+    @Query("select coalesce(p.version, 0) from Parent p where p.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select coalesce(p.version, 0) from Parent p where p.email = :email")
+    Optional<Long> findVersionByEmail(String email);
+
+    // Owner of a parent for ParentOwnershipInterceptor; the email is never changed by an update
+    @Query("select p.email from Parent p where p.id = :id")
+    Optional<String> findEmailById(Long id);
+
+    // Children are part of the parent's representation, so changing them bumps the parent's version.
+    // A bulk update (unlike a forced lock increment) also makes Hibernate drop cached parents and parent queries.
+    @Modifying
+    @Query("update Parent p set p.version = coalesce(p.version, 0) + 1 where p.id = :id")
+    int incrementVersion(Long id);
 } 
\ No newline at end of file
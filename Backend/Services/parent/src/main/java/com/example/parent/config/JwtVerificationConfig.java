@@ -0,0 +1,86 @@
+package com.example.parent.config;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.gatewayidentity.GatewayIdentitySigner;
+import com.example.jwks.JwksClient;
+import com.example.jwks.JwksKeyResolver;
+import com.example.parent.ChildRepository;
+import com.example.parent.ParentRepository;
+import com.example.revocation.PostgresRevocationChannel;
+import com.example.revocation.TokenRevocationList;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Verifies the caller on {@code /api/*}, from the gateway's signed identity
+ * or else the access token against authentication-service's published keys,
+ * checks it against the revocation list, and limits each caller to their own
+ * parent record. Off unless {@code parent.auth.jwks.enabled=true}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "parent.auth.jwks.enabled", havingValue = "true")
+public class JwtVerificationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JwksClient jwksClient(@Value("${parent.auth.jwks.uri}") URI uri,
+                                 @Value("${parent.auth.jwks.refresh-interval:1h}") Duration refreshInterval,
+                                 @Value("${parent.auth.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+        return new JwksClient(uri, refreshInterval, minRefreshInterval);
+    }
+
+    @Bean
+    public GatewayIdentitySigner gatewayIdentitySigner(@Value("${gateway.identity.secret}") String secret,
+                                                       @Value("${gateway.identity.max-age:30s}") Duration maxAge) {
+        return new GatewayIdentitySigner(secret, maxAge);
+    }
+
+    @Bean
+    public TokenRevocationList tokenRevocationList(MeterRegistry meterRegistry,
+                                                   @Value("${parent.auth.revocation.bucket-width:5m}") Duration bucketWidth,
+                                                   @Value("${parent.auth.revocation.max-token-lifetime:1h}") Duration maxTokenLifetime,
+                                                   @Value("${parent.auth.revocation.expected-per-bucket:10000}") int expectedPerBucket) {
+        return new TokenRevocationList(meterRegistry, bucketWidth, maxTokenLifetime, expectedPerBucket);
+    }
+
+    // Listens only: revocations are published by authentication-service
+    @Bean
+    @ConditionalOnProperty(name = "parent.auth.revocation.channel", havingValue = "postgres")
+    public PostgresRevocationChannel revocationChannel(TokenRevocationList revocationList,
+                                                       JdbcTemplate jdbcTemplate,
+                                                       DataSourceProperties dataSourceProperties) {
+        return new PostgresRevocationChannel(revocationList, jdbcTemplate, dataSourceProperties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtVerificationFilter> jwtVerificationFilter(JwksClient jwksClient,
+                                                                               GatewayIdentitySigner identitySigner,
+                                                                               TokenRevocationList revocationList) {
+        FilterRegistrationBean<JwtVerificationFilter> registration = new FilterRegistrationBean<>(
+                new JwtVerificationFilter(new JwksKeyResolver(jwksClient), identitySigner, revocationList));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public WebMvcConfigurer parentOwnershipConfigurer(ParentRepository parentRepository, ChildRepository childRepository) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ParentOwnershipInterceptor(parentRepository, childRepository))
+                        .addPathPatterns("/api/parents/**");
+            }
+        };
+    }
+}
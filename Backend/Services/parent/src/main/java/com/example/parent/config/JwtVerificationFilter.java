@@ -0,0 +1,107 @@
+package com.example.parent.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.gatewayidentity.GatewayIdentity;
+import com.example.gatewayidentity.GatewayIdentitySigner;
+import com.example.revocation.TokenRevocationList;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects requests without a valid caller with 401. Behind the gateway the
+ * caller is the identity it verified and signed (see {@link GatewayIdentitySigner}),
+ * so the token is not parsed again; a request without those headers must
+ * carry a valid access token (Bearer header or jwt cookie), checked locally
+ * against the cached JWKS. Either way the token id is checked against the
+ * {@link TokenRevocationList} that logouts are replicated to, and a request
+ * whose signed headers do not verify is rejected rather than falling back to
+ * its token. The caller's subject is left in the {@link #SUBJECT_ATTRIBUTE}
+ * request attribute, where {@link ParentOwnershipInterceptor} and the
+ * create-or-update endpoint check it against the parent's email.
+ */
+public class JwtVerificationFilter extends OncePerRequestFilter {
+    public static final String SUBJECT_ATTRIBUTE = "com.example.parent.config.JwtVerificationFilter.subject";
+
+    private final JwtParser parser;
+    private final GatewayIdentitySigner identitySigner;
+    private final TokenRevocationList revocationList;
+
+    public JwtVerificationFilter(SigningKeyResolver keyResolver, GatewayIdentitySigner identitySigner,
+                                 TokenRevocationList revocationList) {
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyResolver).build();
+        this.identitySigner = identitySigner;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflight carries no credentials
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String subject = request.getHeader(GatewayIdentitySigner.SIGNATURE_HEADER) != null
+                ? verifyIdentity(request)
+                : verify(extractToken(request));
+        if (subject == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        request.setAttribute(SUBJECT_ATTRIBUTE, subject);
+        chain.doFilter(request, response);
+    }
+
+    private String verifyIdentity(HttpServletRequest request) {
+        GatewayIdentity identity = identitySigner.verify(request::getHeader);
+        if (identity == null || revocationList.isRevoked(identity.tokenId(), identity.expiresAt())) {
+            return null;
+        }
+        return identity.subject();
+    }
+
+    private String verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null && revocationList.isRevoked(claims.getId(), claims.getExpiration().toInstant())) {
+                return null;
+            }
+            return claims.getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String extractToken(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if ("jwt".equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.parent.config;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.parent.ChildRepository;
+import com.example.parent.ParentRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Lets a caller reach only their own parent record and its children: the
+ * verified token's subject must be the parent's email. The parent is named
+ * by the {@code {email}}, {@code {parentId}} or {@code {childId}} path
+ * variable; the create-or-update POST names it in the body and is checked
+ * by the controller. Requests for a record that does not exist pass through
+ * so the handler answers 404.
+ */
+public class ParentOwnershipInterceptor implements HandlerInterceptor {
+    private final ParentRepository parentRepository;
+    private final ChildRepository childRepository;
+
+    public ParentOwnershipInterceptor(ParentRepository parentRepository, ChildRepository childRepository) {
+        this.parentRepository = parentRepository;
+        this.childRepository = childRepository;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        Object subject = request.getAttribute(JwtVerificationFilter.SUBJECT_ATTRIBUTE);
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (subject == null || variables == null) {
+            return true;
+        }
+        Optional<String> owner = owner(variables);
+        if (owner.isPresent() && !owner.get().equals(subject)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return false;
+        }
+        return true;
+    }
+
+    private Optional<String> owner(Map<String, String> variables) {
+        try {
+            if (variables.containsKey("email")) {
+                return Optional.of(variables.get("email"));
+            }
+            if (variables.containsKey("parentId")) {
+                return parentRepository.findEmailById(Long.valueOf(variables.get("parentId")));
+            }
+            if (variables.containsKey("childId")) {
+                return childRepository.findParentEmailById(Long.valueOf(variables.get("childId")));
+            }
+        } catch (NumberFormatException e) {
+            // Not an id: the handler rejects it with 400
+        }
+        return Optional.empty();
+    }
+}
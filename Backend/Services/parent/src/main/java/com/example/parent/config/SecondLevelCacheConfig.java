@@ -0,0 +1,99 @@
+package com.example.parent.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Hibernate second-level cache backed by size-bounded Caffeine caches. Every
+ * region is created here up front and Hibernate is told to fail on unknown
+ * regions, so nothing can fall back to an unbounded default cache.
+ * Hibernate's own statistics (hit/miss/put per region) are exported by the
+ * actuator; the Caffeine metrics bound below add size and eviction counts.
+ * <p>
+ * The regions are local to each instance and nothing invalidates them across
+ * instances, so after a write through one instance the others can serve the
+ * old state until their entries expire. The TTL is that staleness bound and
+ * is kept short: long enough to absorb bursts of repeated reads, not to hold
+ * data for minutes. Conditional requests probe the database directly, so an
+ * If-Match is never checked against a stale version.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String PARENT_REGION = "parent";
+    public static final String CHILD_REGION = "child";
+    public static final String PARENT_CHILDREN_REGION = "parent.children";
+    public static final String PARENT_QUERY_REGION = "parent-queries";
+    public static final String CHILD_QUERY_REGION = "child-queries";
+
+    // Hibernate's built-in regions; update timestamps are one entry per table
+    private static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+    private static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry,
+                                              @Value("${parent.cache.entity-max-size:10000}") long entityMaxSize,
+                                              @Value("${parent.cache.query-max-size:1000}") long queryMaxSize,
+                                              @Value("${parent.cache.ttl:5s}") Duration ttl) {
+        // A manager per context: test contexts in the same JVM must not share or close each other's caches
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("parent-service:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : List.of(PARENT_REGION, CHILD_REGION, PARENT_CHILDREN_REGION)) {
+            create(cacheManager, meterRegistry, region, entityMaxSize, ttl);
+        }
+        for (String region : List.of(PARENT_QUERY_REGION, CHILD_QUERY_REGION, DEFAULT_QUERY_REGION)) {
+            create(cacheManager, meterRegistry, region, queryMaxSize, ttl);
+        }
+        // Never expire or evict timestamps before the query results that depend on them
+        create(cacheManager, meterRegistry, TIMESTAMPS_REGION, 1000, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Inserting or deleting a Child only touches the owning side; drop the parent's cached collection too
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static void create(CacheManager cacheManager, MeterRegistry meterRegistry,
+                               String region, long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        // Hibernate already stores disassembled cache entries; copying them again buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> cache = cacheManager.createCache(region, configuration).unwrap(Cache.class);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hibernate." + region);
+    }
+}
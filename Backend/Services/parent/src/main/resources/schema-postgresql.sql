@@ -0,0 +1,40 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization)
+-- and only against PostgreSQL (spring.sql.init.platform).
+-- Every statement must stay idempotent because the script runs on each startup.
+
+-- The tables Hibernate generates for the entities, for launches that turn its
+-- schema update off (ddl-auto=none, see parent-service-fast-startup.yml).
+-- After an update they already exist and these are no-ops. Keep them in step
+-- with the entities.
+CREATE SEQUENCE IF NOT EXISTS child_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS parent (
+    number_of_children INTEGER,
+    suspected_autistic_child_count INTEGER,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    version BIGINT,
+    address VARCHAR(255),
+    email VARCHAR(255) UNIQUE,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+);
+CREATE TABLE IF NOT EXISTS child (
+    date_of_birth DATE,
+    height FLOAT(53),
+    weight FLOAT(53),
+    id BIGINT NOT NULL,
+    parent_id BIGINT REFERENCES parent,
+    version BIGINT,
+    gender VARCHAR(255),
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS child_parent_id_id_idx ON child (parent_id, id);
+
+-- Child ids used to come from an identity column. Move child_seq past any id
+-- handed out that way so pooled allocation never collides with existing rows.
+SELECT setval('child_seq', (SELECT MAX(id) FROM child))
+WHERE (SELECT MAX(id) FROM child) >= (SELECT last_value FROM child_seq);
+
+-- The version columns were added to existing tables as nullable; start old rows at 0.
+UPDATE parent SET version = 0 WHERE version IS NULL;
+UPDATE child SET version = 0 WHERE version IS NULL;
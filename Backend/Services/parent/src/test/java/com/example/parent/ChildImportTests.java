@@ -0,0 +1,146 @@
+package com.example.parent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"eureka.client.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:parent-import;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.open-in-view=false",
+		"spring.jpa.properties.hibernate.jdbc.batch_size=100",
+		"spring.jpa.properties.hibernate.order_inserts=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"parent.children.import.batch-size=100"
+})
+@AutoConfigureMockMvc
+class ChildImportTests {
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ParentRepository parentRepository;
+	@Autowired private ChildRepository childRepository;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private JdbcTemplate jdbcTemplate;
+
+	private Parent parent;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		childRepository.deleteAll();
+		parentRepository.deleteAll();
+		parent = parentRepository.save(new Parent(null, null, "Pat", "pat@example.com", "Dhaka", 0, 0, null));
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void jsonImportWritesValidRowsInBatches() throws Exception {
+		StringBuilder body = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			if (i > 0) {
+				body.append(',');
+			}
+			body.append("{\"name\":\"Kid ").append(i).append("\",\"dateOfBirth\":\"2019-05-01\",\"height\":100}");
+		}
+		body.append("]");
+
+		mockMvc.perform(post("/api/parents/" + parent.getId() + "/children/import")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(body.toString()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.received").value(1000))
+				.andExpect(jsonPath("$.imported").value(1000))
+				.andExpect(jsonPath("$.rejected").value(0));
+
+		assertEquals(1000, childRepository.findByParentId(parent.getId()).size());
+		// Per batch of 100: one batched insert and a parent version bump, plus a sequence call per 50 ids
+		assertTrue(statistics.getPrepareStatementCount() <= 60,
+				"expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+	}
+
+	@Test
+	void csvImportReportsRejectedRows() throws Exception {
+		String csv = """
+				name,dateOfBirth,gender,height,weight
+				"Doe, Jane",2018-02-03,F,101.5,19
+				,2018-02-03,M,,
+				Sam,not-a-date,M,,
+				Alex,2017-07-07,M,-4,
+				""";
+
+		mockMvc.perform(post("/api/parents/" + parent.getId() + "/children/import")
+						.contentType("text/csv")
+						.content(csv))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.received").value(4))
+				.andExpect(jsonPath("$.imported").value(1))
+				.andExpect(jsonPath("$.rejected").value(3))
+				.andExpect(jsonPath("$.errors[0].row").value(2))
+				.andExpect(jsonPath("$.errors[0].message").value("name is required"))
+				.andExpect(jsonPath("$.errors[1].row").value(3))
+				.andExpect(jsonPath("$.errors[2].message").value("height must be positive"));
+
+		assertEquals("Doe, Jane", childRepository.findByParentId(parent.getId()).get(0).getName());
+	}
+
+	@Test
+	void importIntoUnknownParentIsNotFound() throws Exception {
+		mockMvc.perform(post("/api/parents/999999/children/import")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[]"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void rowsTheDatabaseRejectsAreReportedAndTheRestOfTheBatchImported() throws Exception {
+		jdbcTemplate.execute("ALTER TABLE child ADD CONSTRAINT child_name_not_reserved CHECK (name <> 'Reserved')");
+		try {
+			mockMvc.perform(post("/api/parents/" + parent.getId() + "/children/import")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("[{\"name\":\"Ann\"},{\"name\":\"Reserved\"},{\"name\":\"Bo\"},{\"name\":\"%s\"}]"
+									.formatted("x".repeat(256))))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.received").value(4))
+					.andExpect(jsonPath("$.imported").value(2))
+					.andExpect(jsonPath("$.rejected").value(2))
+					.andExpect(jsonPath("$.errors[0].row").value(4))
+					.andExpect(jsonPath("$.errors[0].message").value("name is longer than 255 characters"))
+					.andExpect(jsonPath("$.errors[1].row").value(2))
+					.andExpect(jsonPath("$.errors[1].message").value("violates a database constraint"));
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE child DROP CONSTRAINT child_name_not_reserved");
+		}
+		assertEquals(2, childRepository.findByParentId(parent.getId()).size());
+	}
+
+	@Test
+	void malformedJsonPartWayThroughStillReturnsTheReport() throws Exception {
+		mockMvc.perform(post("/api/parents/" + parent.getId() + "/children/import")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"name\":\"Ann\"},{\"name\":\"Bo\"},{\"name\": oops"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.received").value(3))
+				.andExpect(jsonPath("$.imported").value(2))
+				.andExpect(jsonPath("$.rejected").value(1))
+				.andExpect(jsonPath("$.errors[0].row").value(3));
+		assertEquals(2, childRepository.findByParentId(parent.getId()).size());
+	}
+}
@@ -0,0 +1,164 @@
+package com.example.parent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"eureka.client.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:parent-etag;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.open-in-view=false"
+})
+@AutoConfigureMockMvc
+class ConditionalRequestTests {
+
+	private static final String UPDATE = "{\"address\":\"Sylhet\",\"numberOfChildren\":1,\"suspectedAutisticChildCount\":0}";
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ParentRepository parentRepository;
+	@Autowired private ChildRepository childRepository;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+
+	private Parent parent;
+	private Child child;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		childRepository.deleteAll();
+		parentRepository.deleteAll();
+		entityManagerFactory.getCache().evictAll();
+		parent = parentRepository.save(new Parent(null, null, "Pat", "pat@example.com", "Dhaka", 1, 0, null));
+		child = childRepository.save(new Child(null, null, "Kid", LocalDate.of(2018, 1, 1), "F", 100.0, 20.0, parent));
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void matchingIfNoneMatchSkipsLoadingTheParent() throws Exception {
+		String etag = etagOf("/api/parents/by-email/pat@example.com");
+		statistics.clear();
+
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+
+		// Only the version probe ran; the parent and its children were never loaded
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(0, statistics.getCollectionLoadCount());
+		assertEquals(0, statistics.getSecondLevelCacheHitCount());
+	}
+
+	@Test
+	void addingOrRemovingAChildChangesTheParentETag() throws Exception {
+		String before = etagOf("/api/parents/" + parent.getId());
+
+		mockMvc.perform(post("/api/parents/" + parent.getId() + "/children")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Second\"}"))
+				.andExpect(status().isOk());
+		String afterAdd = etagOf("/api/parents/" + parent.getId());
+
+		mockMvc.perform(get("/api/parents/" + parent.getId()).header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/parents/" + parent.getId() + "/children").header(HttpHeaders.IF_NONE_MATCH, afterAdd))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(delete("/api/parents/children/" + child.getId())).andExpect(status().isNoContent());
+		mockMvc.perform(get("/api/parents/" + parent.getId() + "/children").header(HttpHeaders.IF_NONE_MATCH, afterAdd))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void ifMatchRejectsUpdatesToAStaleVersion() throws Exception {
+		String etag = etagOf("/api/parents/" + parent.getId());
+
+		String updated = mockMvc.perform(put("/api/parents/" + parent.getId())
+						.header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(put("/api/parents/" + parent.getId())
+						.header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/parents/" + parent.getId())
+						.header(HttpHeaders.IF_MATCH, "W/" + updated)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/parents/" + parent.getId())
+						.header(HttpHeaders.IF_MATCH, updated)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void ifMatchOnAMissingParentFailsThePrecondition() throws Exception {
+		mockMvc.perform(put("/api/parents/" + (parent.getId() + 100))
+						.header(HttpHeaders.IF_MATCH, "*")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/parents/" + (parent.getId() + 100))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void createOrUpdateReturnsTheNewETag() throws Exception {
+		String before = etagOf("/api/parents/" + parent.getId());
+
+		String returned = mockMvc.perform(post("/api/parents")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\":\"pat@example.com\",\"name\":\"Pat\",\"address\":\"Sylhet\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertNotEquals(before, returned);
+		assertEquals(etagOf("/api/parents/" + parent.getId()), returned);
+	}
+
+	@Test
+	void childETagComesFromItsVersion() throws Exception {
+		String etag = etagOf("/api/parents/children/" + child.getId());
+
+		mockMvc.perform(get("/api/parents/children/" + child.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+				.andExpect(status().isNotModified());
+	}
+
+	private String etagOf(String path) throws Exception {
+		return mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.parent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"eureka.client.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:parent;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.open-in-view=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class ParentControllerQueryCountTests {
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ParentRepository parentRepository;
+	@Autowired private ChildRepository childRepository;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private ChildStreamer childStreamer;
+
+	private Statistics statistics;
+	private Parent parent;
+
+	@BeforeEach
+	void setUp() {
+		childRepository.deleteAll();
+		parentRepository.deleteAll();
+		parent = parentRepository.save(new Parent(null, null, "Pat", "pat@example.com", "Dhaka", 3, 1, null));
+		for (int i = 0; i < 3; i++) {
+			childRepository.save(new Child(null, null, "Kid " + i, LocalDate.of(2018, 1, 1 + i), "F", 100.0, 20.0, parent));
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void parentByEmailIsOneStatement() throws Exception {
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.children.length()").value(3));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void parentByIdIsOneStatement() throws Exception {
+		mockMvc.perform(get("/api/parents/" + parent.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.children.length()").value(3));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void childrenOfParentIsVersionProbePlusOneStatement() throws Exception {
+		mockMvc.perform(get("/api/parents/" + parent.getId() + "/children"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3));
+		// The parent's version (for the ETag) and the children, never one query per child
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void childrenPageIsOneStatementAndReturnsCursor() throws Exception {
+		mockMvc.perform(get("/api/parents/" + parent.getId() + "/children/page").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(2))
+				.andExpect(jsonPath("$.nextCursor").isNumber());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void childrenStreamWritesOneLinePerChild() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/parents/" + parent.getId() + "/children/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertEquals(3, body.lines().count());
+	}
+
+	@Test
+	void childrenStreamFlushesPerFetchNotPerRow() throws Exception {
+		int[] flushes = {0};
+		ByteArrayOutputStream out = new ByteArrayOutputStream() {
+			@Override
+			public void flush() {
+				flushes[0]++;
+			}
+		};
+		childStreamer.write(parent.getId(), out);
+		assertEquals(3, out.toString().lines().count());
+		// Fewer rows than one fetch: only the final flush on close
+		assertEquals(1, flushes[0]);
+	}
+
+}
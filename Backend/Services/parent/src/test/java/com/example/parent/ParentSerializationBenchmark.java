@@ -0,0 +1,67 @@
+package com.example.parent;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson write and read of a {@link Parent} with N children, using an
+ * ObjectMapper built the way Spring MVC builds its own (JavaTimeModule,
+ * ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParentSerializationBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    public int children;
+
+    private ObjectMapper objectMapper;
+    private Parent parent;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        parent = new Parent(1L, 3L, "Bench Parent", "bench@example.com", "1 Benchmark Road", children, 0, null);
+        List<Child> list = new ArrayList<>(children);
+        for (int i = 0; i < children; i++) {
+            Child child = new Child((long) i + 1, 0L, "Child " + i, LocalDate.of(2018, 1, 1).plusDays(i),
+                    i % 2 == 0 ? "female" : "male", 110.5 + i % 20, 19.25 + i % 7, parent);
+            list.add(child);
+        }
+        parent.setChildren(list);
+        json = objectMapper.writeValueAsBytes(parent);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return objectMapper.writeValueAsBytes(parent);
+    }
+
+    @Benchmark
+    public Parent read() throws IOException {
+        return objectMapper.readValue(json, Parent.class);
+    }
+}
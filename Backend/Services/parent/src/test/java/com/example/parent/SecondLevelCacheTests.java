@@ -0,0 +1,117 @@
+package com.example.parent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"eureka.client.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:parent-cache;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.open-in-view=false",
+		"spring.sql.init.mode=never"
+})
+@AutoConfigureMockMvc
+class SecondLevelCacheTests {
+
+	@Autowired private MockMvc mockMvc;
+	@Autowired private ParentRepository parentRepository;
+	@Autowired private ChildRepository childRepository;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private MeterRegistry meterRegistry;
+
+	private Statistics statistics;
+	private Parent parent;
+	private Child child;
+
+	@BeforeEach
+	void setUp() {
+		childRepository.deleteAll();
+		parentRepository.deleteAll();
+		entityManagerFactory.getCache().evictAll();
+		parent = parentRepository.save(new Parent(null, null, "Pat", "pat@example.com", "Dhaka", 2, 0, null));
+		child = childRepository.save(new Child(null, null, "Kid", LocalDate.of(2018, 1, 1), "F", 100.0, 20.0, parent));
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void repeatedParentByEmailIsServedFromCache() throws Exception {
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com")).andExpect(status().isOk());
+		long afterFirst = statistics.getPrepareStatementCount();
+
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.children.length()").value(1));
+
+		assertEquals(afterFirst, statistics.getPrepareStatementCount());
+		assertTrue(statistics.getQueryCacheHitCount() > 0);
+	}
+
+	@Test
+	void updateInvalidatesCachedParent() throws Exception {
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com")).andExpect(status().isOk());
+
+		mockMvc.perform(put("/api/parents/" + parent.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"address\":\"Chittagong\",\"numberOfChildren\":2,\"suspectedAutisticChildCount\":1}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com"))
+				.andExpect(jsonPath("$.address").value("Chittagong"))
+				.andExpect(jsonPath("$.suspectedAutisticChildCount").value(1));
+	}
+
+	@Test
+	void addingAndDeletingChildrenInvalidatesCachedCollections() throws Exception {
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/parents/" + parent.getId() + "/children")).andExpect(status().isOk());
+
+		mockMvc.perform(post("/api/parents/" + parent.getId() + "/children")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Second\",\"dateOfBirth\":\"2019-03-04\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com"))
+				.andExpect(jsonPath("$.children.length()").value(2));
+		mockMvc.perform(get("/api/parents/" + parent.getId() + "/children"))
+				.andExpect(jsonPath("$.length()").value(2));
+
+		mockMvc.perform(delete("/api/parents/children/" + child.getId())).andExpect(status().is2xxSuccessful());
+
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com"))
+				.andExpect(jsonPath("$.children.length()").value(1));
+		mockMvc.perform(get("/api/parents/" + parent.getId() + "/children"))
+				.andExpect(jsonPath("$.length()").value(1));
+	}
+
+	@Test
+	void regionMetricsAreExported() throws Exception {
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/parents/by-email/pat@example.com")).andExpect(status().isOk());
+
+		assertTrue(meterRegistry.find("cache.evictions").tag("cache", "hibernate.parent").meter() != null);
+		assertTrue(meterRegistry.find("hibernate.cache.query.requests").tag("result", "hit").functionCounter().count() > 0);
+	}
+}
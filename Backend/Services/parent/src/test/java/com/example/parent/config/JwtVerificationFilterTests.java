@@ -0,0 +1,155 @@
+package com.example.parent.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.gatewayidentity.GatewayIdentity;
+import com.example.gatewayidentity.GatewayIdentitySigner;
+import com.example.revocation.TokenRevocationList;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.servlet.http.Cookie;
+
+class JwtVerificationFilterTests {
+
+	private static final KeyPair KEY = generate();
+
+	private final GatewayIdentitySigner signer =
+			new GatewayIdentitySigner(Base64.getEncoder().encodeToString(new byte[32]), Duration.ofSeconds(30));
+	private final TokenRevocationList revocationList = new TokenRevocationList(null, Duration.ofMinutes(5), Duration.ofHours(1), 100);
+	private final JwtVerificationFilter filter = new JwtVerificationFilter(new SigningKeyResolverAdapter() {
+		@Override
+		public Key resolveSigningKey(JwsHeader header, Claims claims) {
+			return "k1".equals(header.getKeyId()) ? KEY.getPublic() : null;
+		}
+	}, signer, revocationList);
+
+	@Test
+	void acceptsCookieAndBearerTokens() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/parents/1");
+		request.setCookies(new Cookie("jwt", token(KEY, 60_000)));
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		assertNotNull(chain.getRequest());
+		assertEquals("alice@example.com", request.getAttribute(JwtVerificationFilter.SUBJECT_ATTRIBUTE));
+
+		request = new MockHttpServletRequest("GET", "/api/parents/1");
+		request.addHeader("Authorization", "Bearer " + token(KEY, 60_000));
+		chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		assertNotNull(chain.getRequest());
+	}
+
+	@Test
+	void rejectsMissingExpiredAndForeignTokens() throws Exception {
+		for (String token : new String[] { null, "not-a-jwt", token(KEY, -1000), token(generate(), 60_000) }) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/parents/1");
+			if (token != null) {
+				request.addHeader("Authorization", "Bearer " + token);
+			}
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(request, response, chain);
+			assertEquals(401, response.getStatus());
+			assertNull(chain.getRequest());
+		}
+	}
+
+	@Test
+	void rejectsRevokedTokens() throws Exception {
+		String tokenId = UUID.randomUUID().toString();
+		Date expiration = new Date(System.currentTimeMillis() + 60_000);
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "k1")
+				.setId(tokenId)
+				.setSubject("alice@example.com")
+				.setExpiration(expiration)
+				.signWith(KEY.getPrivate(), SignatureAlgorithm.ES256)
+				.compact();
+		revocationList.add(tokenId, expiration.toInstant());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/parents/1");
+		request.addHeader("Authorization", "Bearer " + token);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+		assertEquals(401, response.getStatus());
+		assertNull(chain.getRequest());
+	}
+
+	@Test
+	void trustsTheGatewaySignedIdentityUnlessRevokedOrForged() throws Exception {
+		Instant expiresAt = Instant.now().plusSeconds(60);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/parents/1");
+		signer.sign(new GatewayIdentity("alice@example.com", "jti-1", expiresAt)).forEach(request::addHeader);
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		assertNotNull(chain.getRequest());
+		assertEquals("alice@example.com", request.getAttribute(JwtVerificationFilter.SUBJECT_ATTRIBUTE));
+
+		// A forged identity is not rescued by a valid token
+		request = new MockHttpServletRequest("GET", "/api/parents/1");
+		signer.sign(new GatewayIdentity("alice@example.com", "jti-1", expiresAt)).forEach(request::addHeader);
+		request.removeHeader(GatewayIdentitySigner.SUBJECT_HEADER);
+		request.addHeader(GatewayIdentitySigner.SUBJECT_HEADER, "mallory%40example.com");
+		request.addHeader("Authorization", "Bearer " + token(KEY, 60_000));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		assertEquals(401, response.getStatus());
+
+		revocationList.add("jti-1", expiresAt);
+		request = new MockHttpServletRequest("GET", "/api/parents/1");
+		signer.sign(new GatewayIdentity("alice@example.com", "jti-1", expiresAt)).forEach(request::addHeader);
+		response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		assertEquals(401, response.getStatus());
+	}
+
+	@Test
+	void letsPreflightThrough() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(new MockHttpServletRequest("OPTIONS", "/api/parents/1"), new MockHttpServletResponse(), chain);
+		assertNotNull(chain.getRequest());
+	}
+
+	private static String token(KeyPair key, long ttlMillis) {
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "k1")
+				.setSubject("alice@example.com")
+				.setExpiration(new Date(System.currentTimeMillis() + ttlMillis))
+				.signWith(key.getPrivate(), SignatureAlgorithm.ES256)
+				.compact();
+	}
+
+	private static KeyPair generate() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+			generator.initialize(new ECGenParameterSpec("secp256r1"));
+			return generator.generateKeyPair();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.example.parent.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.parent.ChildRepository;
+import com.example.parent.ParentRepository;
+
+class ParentOwnershipInterceptorTests {
+
+	private final ParentRepository parentRepository = mock(ParentRepository.class);
+	private final ChildRepository childRepository = mock(ChildRepository.class);
+	private final ParentOwnershipInterceptor interceptor = new ParentOwnershipInterceptor(parentRepository, childRepository);
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Test
+	void callersReachOnlyTheirOwnParent() throws Exception {
+		assertTrue(interceptor.preHandle(request("pat@example.com", Map.of("email", "pat@example.com")), response, null));
+		assertFalse(interceptor.preHandle(request("eve@example.com", Map.of("email", "pat@example.com")), response, null));
+		assertEquals(403, response.getStatus());
+	}
+
+	@Test
+	void idsAreResolvedToTheOwningParent() throws Exception {
+		when(parentRepository.findEmailById(1L)).thenReturn(Optional.of("pat@example.com"));
+		when(childRepository.findParentEmailById(7L)).thenReturn(Optional.of("pat@example.com"));
+		assertTrue(interceptor.preHandle(request("pat@example.com", Map.of("parentId", "1")), response, null));
+		assertTrue(interceptor.preHandle(request("pat@example.com", Map.of("childId", "7")), response, null));
+		assertFalse(interceptor.preHandle(request("eve@example.com", Map.of("childId", "7")), response, null));
+	}
+
+	@Test
+	void missingRecordsAndUnverifiedRequestsPassThrough() throws Exception {
+		when(parentRepository.findEmailById(2L)).thenReturn(Optional.empty());
+		assertTrue(interceptor.preHandle(request("eve@example.com", Map.of("parentId", "2")), response, null));
+		assertTrue(interceptor.preHandle(request(null, Map.of("childId", "7")), response, null));
+		verifyNoInteractions(childRepository);
+	}
+
+	private static MockHttpServletRequest request(String subject, Map<String, String> variables) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(JwtVerificationFilter.SUBJECT_ATTRIBUTE, subject);
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+		return request;
+	}
+}
@@ -0,0 +1,165 @@
+package com.example.revocation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Replicates revocations through the shared database. A revocation is one
+ * statement that inserts into {@code revoked_access_token} and, only if the
+ * row is new, sends a NOTIFY that commits with it. Each instance LISTENs on
+ * a dedicated connection outside the Hikari pool, so request handling never
+ * waits for the database to learn about a revocation.
+ * <p>
+ * The table is the source of truth: on startup and after every reconnect the
+ * listener reloads the unexpired rows, covering notifications sent while it
+ * was not connected. The table belongs to authentication-service, which
+ * publishes; other services that share the database only listen, and retry
+ * until the table exists. Between polls the listener also drops expired
+ * entries from the list, so a listening service needs no scheduler.
+ */
+public class PostgresRevocationChannel implements RevocationChannel, InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(PostgresRevocationChannel.class);
+    static final String CHANNEL = "access_token_revoked";
+    private static final int POLL_TIMEOUT_MILLIS = 5_000;
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    private final TokenRevocationList revocationList;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final Thread listener;
+    private volatile boolean running = true;
+    private volatile Connection connection;
+
+    public PostgresRevocationChannel(TokenRevocationList revocationList,
+                                     JdbcTemplate jdbcTemplate,
+                                     DataSourceProperties dataSourceProperties) {
+        this.revocationList = revocationList;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.listener = new Thread(this::listen, "token-revocation-listener");
+        this.listener.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        listener.start();
+    }
+
+    @Override
+    public void publish(String tokenId, Instant expiresAt) {
+        // Apply locally right away; the notification reaches this instance too, as a no-op
+        revocationList.add(tokenId, expiresAt);
+        jdbcTemplate.query(
+                "WITH inserted AS (INSERT INTO revoked_access_token (jti, expires_at) VALUES (?, ?) "
+                        + "ON CONFLICT (jti) DO NOTHING RETURNING jti) "
+                        + "SELECT pg_notify('" + CHANNEL + "', jti || ' ' || ?) FROM inserted",
+                rs -> { },
+                tokenId, Timestamp.from(expiresAt), Long.toString(expiresAt.getEpochSecond()));
+    }
+
+    @Override
+    public void prune(Instant now) {
+        jdbcTemplate.update("DELETE FROM revoked_access_token WHERE expires_at < ?", Timestamp.from(now));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        closeQuietly(connection);
+        listener.join(POLL_TIMEOUT_MILLIS);
+    }
+
+    private void listen() {
+        int failures = 0;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // LISTEN is active before the reload, so nothing committed in between is missed
+                int loaded = reload(conn);
+                log.info("Listening for token revocations; loaded {} unexpired", loaded);
+                failures = 0;
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                    revocationList.prune(Instant.now());
+                    if (notifications == null && !conn.isValid(POLL_TIMEOUT_MILLIS / 1000)) {
+                        // An idle LISTEN connection would not otherwise notice a dead server
+                        throw new SQLException("Listener connection is no longer valid");
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                failures++;
+                Duration delay = Duration.ofSeconds(1L << Math.min(failures - 1, 5));
+                delay = delay.compareTo(MAX_RECONNECT_DELAY) > 0 ? MAX_RECONNECT_DELAY : delay;
+                log.warn("Token revocation listener disconnected, reconnecting in {}: {}", delay, e.toString());
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private int reload(Connection conn) throws SQLException {
+        int loaded = 0;
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT jti, expires_at FROM revoked_access_token WHERE expires_at > now()")) {
+            while (rs.next()) {
+                revocationList.add(rs.getString(1), rs.getTimestamp(2).toInstant());
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    // Payload is "<jti> <expiry epoch seconds>"
+    private void apply(String payload) {
+        int space = payload.lastIndexOf(' ');
+        try {
+            revocationList.add(payload.substring(0, space), Instant.ofEpochSecond(Long.parseLong(payload.substring(space + 1))));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed revocation notification '{}'", payload);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException ignored) {
+                // closing only to unblock the listener
+            }
+        }
+    }
+}
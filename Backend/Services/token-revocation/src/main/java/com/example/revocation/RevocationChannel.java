@@ -0,0 +1,17 @@
+package com.example.revocation;
+
+import java.time.Instant;
+
+/**
+ * Replicates revocations to every instance that checks them. Implementations
+ * add published entries to each instance's {@link TokenRevocationList},
+ * including the publisher's own.
+ */
+public interface RevocationChannel {
+
+    void publish(String tokenId, Instant expiresAt);
+
+    /** Drops durable state for revocations whose tokens have expired. */
+    default void prune(Instant now) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.revocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory set of revoked access tokens, checked on every authenticated
+ * request. Revocations are grouped into buckets by the token's expiry
+ * ({@code bucket-width} wide, in a ring that covers the longest token
+ * lifetime), so a whole bucket is dropped once its tokens have expired and
+ * the set never outgrows the tokens that are still live.
+ * <p>
+ * Each bucket pairs a Bloom filter with the exact set of ids. A lookup goes
+ * to the single bucket of the token's expiry and reads a few bits of its
+ * filter; the exact set is only consulted on a filter hit, so the common
+ * not-revoked case costs a string hash and no allocation. The exact set
+ * means a filter false positive never rejects a valid token.
+ * <p>
+ * This list is per instance; {@link RevocationChannel} replicates entries
+ * between instances, and to the other services that accept the tokens.
+ */
+public class TokenRevocationList {
+    // Bloom filter false-positive rate at expected-per-bucket entries
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final long bucketSeconds;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final int bitsPerBucket;
+    private final int hashes;
+    // Tokens whose expiry lies beyond the ring, e.g. if the token lifetime was raised without updating max-token-lifetime
+    private final Map<String, Instant> overflow = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(MeterRegistry meterRegistry, Duration bucketWidth, Duration maxTokenLifetime, int expectedPerBucket) {
+        this.bucketSeconds = Math.max(1, bucketWidth.toSeconds());
+        // +1 for the partly expired current bucket, +1 for the partly covered last one
+        this.ring = new AtomicReferenceArray<>((int) ((maxTokenLifetime.toSeconds() + bucketSeconds - 1) / bucketSeconds) + 2);
+        long bits = (long) Math.ceil(-expectedPerBucket * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        this.bitsPerBucket = (int) Math.max(64, (bits + 63) / 64 * 64);
+        this.hashes = (int) Math.max(1, Math.round((double) bitsPerBucket / expectedPerBucket * Math.log(2)));
+        if (meterRegistry != null) {
+            Gauge.builder("auth.revoked-tokens", this, TokenRevocationList::size)
+                    .description("Revoked access tokens that have not expired yet, on this instance")
+                    .register(meterRegistry);
+        }
+    }
+
+    /** True if the verified token was revoked. Tokens without a jti cannot be revoked. */
+    public boolean isRevoked(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return false;
+        }
+        if (!overflow.isEmpty() && overflow.containsKey(tokenId)) {
+            return true;
+        }
+        long index = Math.floorDiv(expiresAt.getEpochSecond(), bucketSeconds);
+        Bucket bucket = ring.get(slot(index));
+        return bucket != null && bucket.index == index && bucket.mightContain(hash(tokenId)) && bucket.ids.contains(tokenId);
+    }
+
+    /**
+     * Records a revocation on this instance only. Idempotent; tokens that
+     * have already expired are ignored since they are rejected anyway.
+     */
+    public void add(String tokenId, Instant expiresAt) {
+        long now = Instant.now().getEpochSecond();
+        if (expiresAt.getEpochSecond() < now) {
+            return;
+        }
+        long index = Math.floorDiv(expiresAt.getEpochSecond(), bucketSeconds);
+        if (index >= Math.floorDiv(now, bucketSeconds) + ring.length()) {
+            overflow.put(tokenId, expiresAt);
+            return;
+        }
+        int slot = slot(index);
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.index == index) {
+                bucket.add(tokenId, hash(tokenId));
+                return;
+            }
+            // Any other bucket in this slot is at least a full ring older, so all its tokens have expired
+            Bucket fresh = new Bucket(index, bitsPerBucket);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                fresh.add(tokenId, hash(tokenId));
+                return;
+            }
+        }
+    }
+
+    /** Drops every bucket whose tokens have all expired. */
+    public void prune(Instant now) {
+        long current = Math.floorDiv(now.getEpochSecond(), bucketSeconds);
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.index < current) {
+                ring.compareAndSet(slot, bucket, null);
+            }
+        }
+        overflow.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    public int size() {
+        int size = overflow.size();
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null) {
+                size += bucket.ids.size();
+            }
+        }
+        return size;
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) ring.length());
+    }
+
+    // FNV-1a over the UTF-16 chars, then the MurmurHash3 finalizer to spread the bits
+    private static long hash(String tokenId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            h = (h ^ tokenId.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private final class Bucket {
+        final long index;
+        final AtomicLongArray bits;
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        Bucket(long index, int bitCount) {
+            this.index = index;
+            this.bits = new AtomicLongArray(bitCount / 64);
+        }
+
+        // Exact set first: a reader that sees the filter bits also finds the id
+        void add(String tokenId, long hash) {
+            ids.add(tokenId);
+            for (int i = 0; i < hashes; i++) {
+                int bit = bit(hash, i);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    // retry
+                }
+            }
+        }
+
+        boolean mightContain(long hash) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = bit(hash, i);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Kirsch-Mitzenmacher double hashing from the two 32-bit halves
+        private int bit(long hash, int i) {
+            int combined = (int) hash + i * (int) (hash >>> 32);
+            return (combined & Integer.MAX_VALUE) % bitsPerBucket;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.revocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationListTests {
+
+	private final TokenRevocationList list = new TokenRevocationList(null, Duration.ofMinutes(5), Duration.ofHours(1), 100);
+
+	@Test
+	void revokedIdsAreFoundAndOthersAreNot() {
+		Instant expiresAt = Instant.now().plus(Duration.ofMinutes(30));
+		for (int i = 0; i < 1000; i++) {
+			list.add("revoked-" + i, expiresAt);
+		}
+		// 10x the expected entries per bucket saturates the Bloom filter; the exact set still decides
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(list.isRevoked("revoked-" + i, expiresAt));
+			assertFalse(list.isRevoked("live-" + i, expiresAt));
+		}
+		assertFalse(list.isRevoked(null, expiresAt));
+		assertEquals(1000, list.size());
+	}
+
+	@Test
+	void pruneDropsBucketsOnceTheirTokensExpired() {
+		Instant now = Instant.now();
+		String soon = UUID.randomUUID().toString();
+		String later = UUID.randomUUID().toString();
+		list.add(soon, now.plus(Duration.ofMinutes(2)));
+		list.add(later, now.plus(Duration.ofMinutes(50)));
+		list.add("already-expired", now.minusSeconds(1));
+		assertEquals(2, list.size());
+
+		list.prune(now.plus(Duration.ofMinutes(11)));
+		assertEquals(1, list.size());
+		assertTrue(list.isRevoked(later, now.plus(Duration.ofMinutes(50))));
+	}
+
+	@Test
+	void tokensOutlivingTheRingAreStillTracked() {
+		Instant farFuture = Instant.now().plus(Duration.ofHours(3));
+		list.add("long-lived", farFuture);
+		assertTrue(list.isRevoked("long-lived", farFuture));
+
+		list.prune(farFuture.plusSeconds(1));
+		assertFalse(list.isRevoked("long-lived", farFuture));
+	}
+
+}
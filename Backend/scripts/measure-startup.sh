@@ -0,0 +1,172 @@
+#!/usr/bin/env bash
+#
+# Measures startup time and resident memory of one service in each launch mode.
+#
+#   scripts/measure-startup.sh [-n runs] <module> [jar|fast-startup|native ...]
+#
+#   module  jwt_auth | parent | gateway | discovery | config-server
+#   jar           the repackaged Boot jar (mvn package)
+#   fast-startup  AOT + CDS archive      (mvn -Pfast-startup package, after
+#                                         mvn -f Services/fast-startup/pom.xml install)
+#   native        GraalVM native image   (mvn -Pnative native:compile)
+#
+# Every mode runs with the settings it ships with: configuration is read
+# straight from config-server's files with the prod profile active (PROFILES
+# overrides it), plus the fast-startup profile in that mode. jwt_auth and
+# parent therefore connect to PostgreSQL and run their schema update and
+# scripts as in production; point them at a database with DB_URL (default:
+# the one in their configuration), DB_USER and DB_PASSWORD. Only Eureka is
+# left out, so results do not depend on which other services are up.
+#
+# Each mode gets one discarded warm-up run (page cache, JIT of the launcher),
+# then <runs> measured runs. Reported per mode:
+#   startup  median of Boot's "process running for" on the Started line,
+#            i.e. from JVM/process start to a refreshed context with the
+#            web server listening
+#   rss      median VmRSS read from /proc when the Started line appears
+#   hwm      median VmHWM (peak RSS) at the same moment
+# For stable numbers run on an idle machine; set CPUS=0-1 to pin the service
+# to fixed cores with taskset.
+
+set -euo pipefail
+
+RUNS=5
+while getopts "n:" opt; do
+    case "$opt" in
+        n) RUNS="$OPTARG" ;;
+        *) exit 2 ;;
+    esac
+done
+shift $((OPTIND - 1))
+
+if [ $# -lt 1 ]; then
+    sed -n '3,11p' "$0" | sed 's/^# \{0,1\}//'
+    exit 2
+fi
+
+MODULE="$1"
+shift
+MODES=("$@")
+[ $# -eq 0 ] && MODES=(jar fast-startup)
+
+SERVICES="$(cd "$(dirname "$0")/../Services" && pwd)"
+MODULE_DIR="$SERVICES/$MODULE"
+CONFIG_DIR="$SERVICES/config-server/src/main/resources/configurations"
+TIMEOUT=180
+
+[ -f "$MODULE_DIR/pom.xml" ] || { echo "unknown module: $MODULE" >&2; exit 2; }
+
+artifact_id() {
+    sed -n '/<parent>/,/<\/parent>/d; s:.*<artifactId>\(.*\)</artifactId>.*:\1:p' "$MODULE_DIR/pom.xml" | head -1
+}
+version() {
+    sed -n '/<parent>/,/<\/parent>/d; s:.*<version>\(.*\)</version>.*:\1:p' "$MODULE_DIR/pom.xml" | head -1
+}
+ARTIFACT="$(artifact_id)-$(version)"
+
+PROFILES="${PROFILES-prod}"
+
+# Same values as spring.config.name in each fast-startup profile.
+# $1: profiles added to $PROFILES
+service_args() {
+    local profiles="${PROFILES:+$PROFILES${1:+,}}${1:-}"
+    local args=(
+        -Dspring.cloud.config.enabled=false
+        -Dspring.config.additional-location="optional:file:$CONFIG_DIR/"
+        -Deureka.client.register-with-eureka=false
+        -Deureka.client.fetch-registry=false
+        -Dserver.port=0
+    )
+    case "$MODULE" in
+        jwt_auth)      args+=(-Dspring.config.name=application,authentication-service) ;;
+        parent)        args+=(-Dspring.config.name=application,parent-service) ;;
+        gateway)       args+=(-Dspring.config.name=application,gateway) ;;
+        discovery)     args+=(-Dspring.config.name=application,discovery-sevice) ;;
+        config-server) args=(-Dserver.port=0) ;;
+    esac
+    [ -n "$profiles" ] && args+=(-Dspring.profiles.active="$profiles")
+    case "$MODULE" in
+        jwt_auth|parent)
+            [ -n "${DB_URL:-}" ] && args+=(-Dspring.datasource.url="$DB_URL")
+            [ -n "${DB_USER:-}" ] && args+=(-Dspring.datasource.username="$DB_USER")
+            [ -n "${DB_PASSWORD:-}" ] && args+=(-Dspring.datasource.password="$DB_PASSWORD") ;;
+    esac
+    printf '%s\n' "${args[@]}"
+}
+
+# Prints the working directory on the first line, then the command
+launch_command() {
+    local mode="$1" jar
+    case "$mode" in
+        jar)
+            jar="$MODULE_DIR/target/$ARTIFACT.jar"
+            [ -f "$jar" ] || { echo "missing $jar, run: mvn -f $MODULE_DIR package" >&2; return 1; }
+            echo "$MODULE_DIR/target"
+            echo java; service_args; echo -jar; echo "$jar" ;;
+        fast-startup)
+            local dir="$MODULE_DIR/target/fast-startup"
+            [ -f "$dir/app.jsa" ] || { echo "missing $dir/app.jsa, run: mvn -f $SERVICES/fast-startup/pom.xml install, then mvn -f $MODULE_DIR -Pfast-startup package" >&2; return 1; }
+            echo "$dir"
+            echo java; echo -XX:SharedArchiveFile=app.jsa; echo -Dspring.aot.enabled=true
+            echo -Dspring.cloud.refresh.enabled=false
+            service_args fast-startup; echo -jar; echo "$ARTIFACT-fast-startup.jar" ;;
+        native)
+            local bin="$MODULE_DIR/target/$(artifact_id)"
+            [ -x "$bin" ] || { echo "missing $bin, run: mvn -f $MODULE_DIR -Pnative native:compile" >&2; return 1; }
+            echo "$MODULE_DIR/target"
+            echo "$bin"; echo -Dspring.cloud.refresh.enabled=false; service_args ;;
+        *)
+            echo "unknown mode: $mode" >&2; return 1 ;;
+    esac
+}
+
+status_kb() {
+    awk -v key="$2:" '$1 == key { print $2 }' "/proc/$1/status"
+}
+
+median() {
+    sort -g | awk '{ v[NR] = $1 } END { if (NR % 2) print v[(NR + 1) / 2]; else print (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# Starts the service once and prints "<startup seconds> <rss kB> <hwm kB>"
+run_once() {
+    local log pid started="" deadline
+    local -a cmd
+    mapfile -t cmd < <(launch_command "$1")
+    local dir="${cmd[0]}"
+    cmd=("${cmd[@]:1}")
+    [ -n "${CPUS:-}" ] && cmd=(taskset -c "$CPUS" "${cmd[@]}")
+
+    log="$(mktemp)"
+    (cd "$dir" && exec "${cmd[@]}") >"$log" 2>&1 &
+    pid=$!
+    deadline=$((SECONDS + TIMEOUT))
+    while [ $SECONDS -lt $deadline ] && kill -0 "$pid" 2>/dev/null; do
+        started="$(grep -o 'process running for [0-9.]*' "$log" | head -1 || true)"
+        [ -n "$started" ] && break
+        sleep 0.05
+    done
+    if [ -z "$started" ]; then
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        echo "$MODULE did not start in $1 mode, log follows:" >&2
+        tail -40 "$log" >&2
+        rm -f "$log"
+        return 1
+    fi
+    echo "${started##* } $(status_kb "$pid" VmRSS) $(status_kb "$pid" VmHWM)"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+}
+
+printf '%-14s %4s %11s %9s %9s\n' mode runs startup_s rss_mb hwm_mb
+for mode in "${MODES[@]}"; do
+    launch_command "$mode" >/dev/null || exit 1
+    run_once "$mode" >/dev/null
+    results="$(for _ in $(seq "$RUNS"); do run_once "$mode"; done)"
+    printf '%-14s %4d %11.3f %9.1f %9.1f\n' "$mode" "$RUNS" \
+        "$(cut -d' ' -f1 <<<"$results" | median)" \
+        "$(cut -d' ' -f2 <<<"$results" | median | awk '{ print $1 / 1024 }')" \
+        "$(cut -d' ' -f3 <<<"$results" | median | awk '{ print $1 / 1024 }')"
+done
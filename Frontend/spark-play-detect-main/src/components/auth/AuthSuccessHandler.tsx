@@ -35,7 +35,7 @@ export const AuthSuccessHandler = ({ onComplete }: AuthSuccessHandlerProps) => {
         }
 
         // Get user email from JWT
-        const emailResponse = await fetch('http://localhost:8080/auth/me', { 
+        const emailResponse = await fetch('http://localhost:8222/auth/me', { 
           credentials: 'include' 
         });
         
@@ -48,7 +48,7 @@ export const AuthSuccessHandler = ({ onComplete }: AuthSuccessHandlerProps) => {
         
         // Check if parent info exists
         console.log('AuthSuccessHandler: Checking parent info...');
-        const parentResponse = await fetch(`http://localhost:8082/api/parents/by-email/${email}`, {
+        const parentResponse = await fetch(`http://localhost:8222/api/parents/by-email/${email}`, {
           credentials: 'include'
         });
         
@@ -56,7 +56,7 @@ export const AuthSuccessHandler = ({ onComplete }: AuthSuccessHandlerProps) => {
           // Parent info exists, check if they have children
           const parent = await parentResponse.json();
           console.log('AuthSuccessHandler: Parent found, checking children...');
-          const childrenResponse = await fetch(`http://localhost:8082/api/parents/${parent.id}/children`, {
+          const childrenResponse = await fetch(`http://localhost:8222/api/parents/${parent.id}/children`, {
             credentials: 'include'
           });
           
@@ -11,7 +11,7 @@ export const ProtectedRoute: React.FC<ProtectedRouteProps> = ({ children }) => {
   const [authenticated, setAuthenticated] = useState(false);
 
   useEffect(() => {
-    fetch('http://localhost:8080/auth/session', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/session', { credentials: 'include' })
       .then(res => res.json())
       .then(auth => {
         setAuthenticated(auth);
@@ -33,7 +33,7 @@ export const SignInForm = ({ onSuccess, onSwitchToSignUp }: SignInFormProps) =>
 
     setIsLoading(true);
     try {
-      const res = await fetch("http://localhost:8080/auth/login", {
+      const res = await fetch("http://localhost:8222/auth/login", {
         method: "POST",
         headers: { "Content-Type": "application/json" },
         credentials: "include",
@@ -55,7 +55,7 @@ export const SignUpForm = ({ onSuccess, onSwitchToSignIn }: SignUpFormProps) =>
 
     setIsLoading(true);
     try {
-      const res = await fetch("http://localhost:8080/auth/register", {
+      const res = await fetch("http://localhost:8222/auth/register", {
         method: "POST",
         headers: { "Content-Type": "application/json" },
         credentials: "include",
@@ -69,7 +69,7 @@ export const SignUpForm = ({ onSuccess, onSwitchToSignIn }: SignUpFormProps) =>
         description: "Account created successfully! Let's start learning!",
       });
       // Auto-login after registration
-      const loginRes = await fetch("http://localhost:8080/auth/login", {
+      const loginRes = await fetch("http://localhost:8222/auth/login", {
         method: "POST",
         headers: { "Content-Type": "application/json" },
         credentials: "include",
@@ -70,7 +70,7 @@ export const ChildProvider: React.FC<ChildProviderProps> = ({ children }) => {
 
   const loadParentData = async (parentId: number) => {
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/${parentId}`, {
+      const response = await fetch(`http://localhost:8222/api/parents/${parentId}`, {
         credentials: 'include'
       });
       if (response.ok) {
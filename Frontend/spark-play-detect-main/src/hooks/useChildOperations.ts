@@ -12,7 +12,7 @@ export const useChildOperations = () => {
     }
 
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/children/${currentChild.id}/progress`, {
+      const response = await fetch(`http://localhost:8222/api/parents/children/${currentChild.id}/progress`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -46,7 +46,7 @@ export const useChildOperations = () => {
     }
 
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/children/${currentChild.id}/progress`, {
+      const response = await fetch(`http://localhost:8222/api/parents/children/${currentChild.id}/progress`, {
         credentials: 'include'
       });
 
@@ -69,7 +69,7 @@ export const useChildOperations = () => {
     }
 
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/children/${currentChild.id}/assessments`, {
+      const response = await fetch(`http://localhost:8222/api/parents/children/${currentChild.id}/assessments`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -103,7 +103,7 @@ export const useChildOperations = () => {
     }
 
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/children/${currentChild.id}/assessments`, {
+      const response = await fetch(`http://localhost:8222/api/parents/children/${currentChild.id}/assessments`, {
         credentials: 'include'
       });
 
@@ -126,7 +126,7 @@ export const useChildOperations = () => {
     }
 
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/children/${currentChild.id}`, {
+      const response = await fetch(`http://localhost:8222/api/parents/children/${currentChild.id}`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
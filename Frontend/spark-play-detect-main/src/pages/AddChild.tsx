@@ -31,10 +31,10 @@ const AddChild = () => {
 
   useEffect(() => {
     // Get parent info to get parentId
-    fetch('http://localhost:8080/auth/me', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/me', { credentials: 'include' })
       .then(res => res.text())
       .then(email => {
-        return fetch(`http://localhost:8082/api/parents/by-email/${email}`, {
+        return fetch(`http://localhost:8222/api/parents/by-email/${email}`, {
           credentials: 'include'
         });
       })
@@ -67,7 +67,7 @@ const AddChild = () => {
 
     setIsLoading(true);
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/${parentId}/children`, {
+      const response = await fetch(`http://localhost:8222/api/parents/${parentId}/children`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -92,7 +92,7 @@ const AddChild = () => {
 
   const handleLogout = async () => {
     try {
-      await fetch('http://localhost:8080/auth/logout', { 
+      await fetch('http://localhost:8222/auth/logout', { 
         method: 'POST', 
         credentials: 'include' 
       });
@@ -11,7 +11,7 @@ export default function Auth() {
   const navigate = useNavigate();
 
   useEffect(() => {
-    fetch('http://localhost:8080/auth/session', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/session', { credentials: 'include' })
       .then(res => res.json())
       .then(authenticated => {
         if (authenticated) {
@@ -24,10 +24,10 @@ const ChildrenProfiles = () => {
 
   useEffect(() => {
     // First get parent info to get parentId
-    fetch('http://localhost:8080/auth/me', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/me', { credentials: 'include' })
       .then(res => res.text())
       .then(email => {
-        return fetch(`http://localhost:8082/api/parents/by-email/${email}`, {
+        return fetch(`http://localhost:8222/api/parents/by-email/${email}`, {
           credentials: 'include'
         });
       })
@@ -42,7 +42,7 @@ const ChildrenProfiles = () => {
       })
       .then(parent => {
         setParentId(parent.id);
-        return fetch(`http://localhost:8082/api/parents/${parent.id}/children`, {
+        return fetch(`http://localhost:8222/api/parents/${parent.id}/children`, {
           credentials: 'include'
         });
       })
@@ -127,7 +127,7 @@ const ChildrenProfiles = () => {
     }
 
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/children/${childId}`, {
+      const response = await fetch(`http://localhost:8222/api/parents/children/${childId}`, {
         method: 'DELETE',
         credentials: 'include'
       });
@@ -146,7 +146,7 @@ const ChildrenProfiles = () => {
 
   const handleLogout = async () => {
     try {
-      await fetch('http://localhost:8080/auth/logout', { 
+      await fetch('http://localhost:8222/auth/logout', { 
         method: 'POST', 
         credentials: 'include' 
       });
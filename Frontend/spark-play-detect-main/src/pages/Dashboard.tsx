@@ -13,13 +13,13 @@ export default function Dashboard() {
   const [selectedChild, setSelectedChild] = useState<any>(null);
 
   useEffect(() => {
-    fetch('http://localhost:8080/auth/session', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/session', { credentials: 'include' })
       .then(res => res.json())
       .then(authenticated => {
         if (!authenticated) {
           navigate('/auth');
         } else {
-          fetch('http://localhost:8080/auth/me', { credentials: 'include' })
+          fetch('http://localhost:8222/auth/me', { credentials: 'include' })
             .then(res => res.text())
             .then(name => setUsername(name));
           
@@ -47,7 +47,7 @@ export default function Dashboard() {
 
   const handleLogout = async () => {
     console.log('Logout button clicked');
-    await fetch('http://localhost:8080/auth/logout', { method: 'POST', credentials: 'include' });
+    await fetch('http://localhost:8222/auth/logout', { method: 'POST', credentials: 'include' });
     window.location.href = '/auth'; // Full reload ensures session check and clears dashboard state
   };
 
@@ -11,7 +11,7 @@ const GestureGame = () => {
   const [authChecked, setAuthChecked] = useState(false);
 
   useEffect(() => {
-    fetch('http://localhost:8080/auth/session', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/session', { credentials: 'include' })
       .then(res => res.json())
       .then(authenticated => {
         if (!authenticated) {
@@ -32,7 +32,7 @@ const GestureGame = () => {
 
   const handleLogout = async () => {
     console.log('Logout button clicked');
-    await fetch('http://localhost:8080/auth/logout', { method: 'POST', credentials: 'include' });
+    await fetch('http://localhost:8222/auth/logout', { method: 'POST', credentials: 'include' });
     window.location.href = '/auth';
   };
 
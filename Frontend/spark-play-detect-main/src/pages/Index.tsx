@@ -11,7 +11,7 @@ const Index = () => {
   const [isLoading, setIsLoading] = useState(true);
 
   useEffect(() => {
-    fetch('http://localhost:8080/auth/session', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/session', { credentials: 'include' })
       .then(res => res.json())
       .then(authenticated => {
         if (authenticated) {
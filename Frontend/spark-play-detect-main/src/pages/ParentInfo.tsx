@@ -30,7 +30,7 @@ const ParentInfo = () => {
 
   useEffect(() => {
     // Fetch user email from JWT token
-    fetch('http://localhost:8080/auth/me', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/me', { credentials: 'include' })
       .then(res => res.text())
       .then(email => {
         setUserEmail(email);
@@ -56,7 +56,7 @@ const ParentInfo = () => {
 
     setIsLoading(true);
     try {
-      const response = await fetch('http://localhost:8082/api/parents', {
+      const response = await fetch('http://localhost:8222/api/parents', {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -81,7 +81,7 @@ const ParentInfo = () => {
 
   const handleLogout = async () => {
     try {
-      await fetch('http://localhost:8080/auth/logout', { 
+      await fetch('http://localhost:8222/auth/logout', { 
         method: 'POST', 
         credentials: 'include' 
       });
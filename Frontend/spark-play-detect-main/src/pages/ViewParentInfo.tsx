@@ -30,10 +30,10 @@ const ViewParentInfo = () => {
 
   useEffect(() => {
     // Fetch parent info
-    fetch('http://localhost:8080/auth/me', { credentials: 'include' })
+    fetch('http://localhost:8222/auth/me', { credentials: 'include' })
       .then(res => res.text())
       .then(email => {
-        return fetch(`http://localhost:8082/api/parents/by-email/${email}`, {
+        return fetch(`http://localhost:8222/api/parents/by-email/${email}`, {
           credentials: 'include'
         });
       })
@@ -63,7 +63,7 @@ const ViewParentInfo = () => {
 
     setIsLoading(true);
     try {
-      const response = await fetch(`http://localhost:8082/api/parents/${parentInfo.id}`, {
+      const response = await fetch(`http://localhost:8222/api/parents/${parentInfo.id}`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
@@ -95,7 +95,7 @@ const ViewParentInfo = () => {
 
   const handleLogout = async () => {
     try {
-      await fetch('http://localhost:8080/auth/logout', { 
+      await fetch('http://localhost:8222/auth/logout', { 
         method: 'POST', 
         credentials: 'include' 
       });